@@ -0,0 +1,202 @@
+/**
+ * Helpers shared by the JMH benchmarks: synthetic ECP log workbooks and an ECPFileHandler
+ * wired to in-memory stand-ins instead of MongoDB.
+ *
+ * @author Avinash Tingre
+ */
+package com.avinash.HotfixService.Service;
+
+import com.avinash.HotfixService.Model.ECPLog;
+import com.avinash.HotfixService.Model.HotfixSummary;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+final class BenchmarkWorkbooks {
+
+    static final String SHEET_NAME = "ECPList";
+    static final int HEADER_ROW_NUM = 5;
+    private static final String[] VERSIONS = {"PQR 10.2", "PQR 10.3", "PQR 10.4", "PQR 11.0", "PQR 11.1"};
+    private static final String[] MODULES = {"Inventory", "Search", "Reporting", "Discovery", "Integration"};
+
+    private BenchmarkWorkbooks() {
+    }
+
+    /**
+     * Column headers in declaration order of ECPLogConstants.
+     */
+    static List<String> headers() {
+        List<String> headers = new ArrayList<>();
+        for (Field f : ECPLogConstants.class.getDeclaredFields()) {
+            if (Modifier.isStatic(f.getModifiers()) && f.getType() == String.class) {
+                try {
+                    headers.add((String) f.get(null));
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+        return headers;
+    }
+
+    /**
+     * Write a workbook with the given number of data rows, followed by the "eof" marker row.
+     */
+    static File generate(int rows) throws IOException {
+        File file = File.createTempFile("ecp-bench-" + rows + "-", ".xlsx");
+        file.deleteOnExit();
+        List<String> headers = headers();
+
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(100);
+             OutputStream os = new FileOutputStream(file)) {
+            Sheet sheet = workbook.createSheet(SHEET_NAME);
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("dd-mmm-yyyy"));
+
+            Row header = sheet.createRow(HEADER_ROW_NUM);
+            for (int i = 0; i < headers.size(); i++) {
+                header.createCell(i).setCellValue(headers.get(i));
+            }
+
+            long day = 24L * 60 * 60 * 1000;
+            long base = 1262304000000L;
+            for (int r = 0; r < rows; r++) {
+                Row row = sheet.createRow(HEADER_ROW_NUM + 1 + r);
+                for (int i = 0; i < headers.size(); i++) {
+                    String name = headers.get(i);
+                    Cell c = row.createCell(i);
+                    if (name.equals(ECPLogConstants.requestDate) || name.equals(ECPLogConstants.targetDate)
+                            || name.equals(ECPLogConstants.releasedDate)) {
+                        c.setCellValue(new Date(base + (r % 3650) * day));
+                        c.setCellStyle(dateStyle);
+                    } else if (name.equals(ECPLogConstants.sequence)) {
+                        c.setCellValue(r % 50);
+                    } else if (name.equals(ECPLogConstants.cramerVersion)) {
+                        c.setCellValue(VERSIONS[r % VERSIONS.length]);
+                    } else if (name.equals(ECPLogConstants.module)) {
+                        c.setCellValue(MODULES[r % MODULES.length]);
+                    } else if (name.equals(ECPLogConstants.ecpNo)) {
+                        c.setCellValue("XYZ 10.3.2-" + r);
+                    } else if (name.equals(ECPLogConstants.latestEcp)) {
+                        c.setCellValue("XYZ 10.3.2-" + (r - r % 10 + 9));
+                    } else if (name.equals(ECPLogConstants.description)) {
+                        c.setCellValue("Fix for search console issue number " + r + " in " + MODULES[r % MODULES.length]);
+                    } else {
+                        c.setCellValue(name + " " + (r % 97));
+                    }
+                }
+            }
+            sheet.createRow(HEADER_ROW_NUM + 1 + rows).createCell(1).setCellValue("eof");
+            workbook.write(os);
+            workbook.dispose();
+        }
+        return file;
+    }
+
+    /**
+     * Hotfix records as they would be read from a generated workbook.
+     */
+    static List<ECPLog> ecpLogs(int rows) {
+        long day = 24L * 60 * 60 * 1000;
+        long base = 1262304000000L;
+        List<ECPLog> result = new ArrayList<>(rows);
+        for (int r = 0; r < rows; r++) {
+            ECPLog ecp = new ECPLog();
+            ecp.set_id(r + 1);
+            ecp.setEcpNo("XYZ 10.3.2-" + r);
+            ecp.setLatestEcp("XYZ 10.3.2-" + (r - r % 10 + 9));
+            ecp.setSequence(String.valueOf(r % 50));
+            ecp.setCramerVersion(VERSIONS[r % VERSIONS.length]);
+            ecp.setModule(MODULES[r % MODULES.length]);
+            ecp.setDescription("Fix for search console issue number " + r + " in " + MODULES[r % MODULES.length]);
+            ecp.setRequestor("requestor " + (r % 97));
+            ecp.setFixedBy("fixedBy " + (r % 97));
+            ecp.setFilesModifiedInPerforce("src/module" + (r % 97) + "/File" + r + ".java");
+            ecp.setFilesReleasedToCustomer("module" + (r % 97) + ".jar");
+            ecp.setRequestDate(new Date(base + (r % 3650) * day));
+            ecp.setTargetDate(new Date(base + (r % 3650) * day));
+            ecp.setReleasedDate(new Date(base + (r % 3650) * day));
+            result.add(ecp);
+        }
+        return result;
+    }
+
+    /**
+     * ECPFileHandler reading the given workbook and writing into in-memory stand-ins.
+     */
+    static ECPFileHandler newFileHandler(File workbook) {
+        ECPFileHandler handler = new ECPFileHandler();
+        ReflectionTestUtils.setField(handler, "ecpService", new InMemoryECPLogService());
+        ReflectionTestUtils.setField(handler, "dbhistoryService", new InMemoryDatabaseLogHandler());
+        ReflectionTestUtils.setField(handler, "excelFilePath", workbook.getAbsolutePath());
+        ReflectionTestUtils.setField(handler, "headerRowNum", HEADER_ROW_NUM);
+        ReflectionTestUtils.setField(handler, "sheetname", SHEET_NAME);
+        ReflectionTestUtils.setField(handler, "batchSize", 1000);
+        ReflectionTestUtils.setField(handler, "flushIntervalMs", 2000L);
+        ReflectionTestUtils.setField(handler, "ingestMode", "full");
+        ReflectionTestUtils.setField(handler, "converterThreads", 4);
+        ReflectionTestUtils.setField(handler, "queueCapacity", 1000);
+        return handler;
+    }
+
+    /**
+     * Stand-in for ECPLogService which only counts what would have been written.
+     */
+    static class InMemoryECPLogService extends ECPLogService {
+        private long count;
+        private long staged;
+
+        @Override
+        public void prepareStaging() {
+            staged = 0;
+        }
+
+        @Override
+        public int insertIntoStaging(List<ECPLog> ecp_list) {
+            staged += ecp_list.size();
+            return ecp_list.size();
+        }
+
+        @Override
+        public void promoteStaging() {
+            count = staged;
+        }
+
+        @Override
+        public void dropStaging() {
+            staged = 0;
+        }
+
+        @Override
+        public long countAllHotfixes() {
+            return count;
+        }
+    }
+
+    /**
+     * Stand-in for DatabaseLogHandler which never reports a previous summary, so that every
+     * benchmark invocation does a full load instead of skipping the unchanged workbook.
+     */
+    static class InMemoryDatabaseLogHandler extends DatabaseLogHandler {
+
+        @Override
+        public HotfixSummary addSummary(HotfixSummary dbhistory) {
+            return dbhistory;
+        }
+
+        @Override
+        public HotfixSummary getSummary() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/**
+ * Full Excel ingest (read, convert, batch) of synthetic workbooks of different sizes, writing
+ * into the in-memory stand-in instead of MongoDB.
+ *
+ * @author Avinash Tingre
+ */
+package com.avinash.HotfixService.Service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IngestBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    private File workbook;
+    private ECPFileHandler handler;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workbook = BenchmarkWorkbooks.generate(rows);
+        handler = BenchmarkWorkbooks.newFileHandler(workbook);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        workbook.delete();
+    }
+
+    @Benchmark
+    public long mergeExcelDataToDB() throws Exception {
+        return handler.mergeExcelDataToDB();
+    }
+}
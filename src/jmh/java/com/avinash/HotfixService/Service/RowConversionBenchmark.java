@@ -0,0 +1,165 @@
+/**
+ * Compares row to ECPLog conversion through the compiled column plan of ECPRowConverter with
+ * the previous conversion, which looked up the column of every field by header name and
+ * parsed dates back from formatted strings.
+ *
+ * @author Avinash Tingre
+ */
+package com.avinash.HotfixService.Service;
+
+import com.avinash.HotfixService.Model.ECPLog;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RowConversionBenchmark {
+
+    private static final int ROWS = 1024;
+
+    private ECPRowConverter converter;
+    private Map<String, Integer> legacyColumnIndex;
+    private String[][] rows;
+    private ECPRowConverter.RowValues[] rowValues;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        List<String> headers = BenchmarkWorkbooks.headers();
+        legacyColumnIndex = new LinkedHashMap<>();
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            Row header = workbook.createSheet(BenchmarkWorkbooks.SHEET_NAME).createRow(0);
+            for (int i = 0; i < headers.size(); i++) {
+                header.createCell(i).setCellValue(headers.get(i));
+                legacyColumnIndex.put(headers.get(i), i);
+            }
+            converter = new ECPRowConverter(header, false);
+        }
+
+        rows = new String[ROWS][];
+        rowValues = new ECPRowConverter.RowValues[ROWS];
+        for (int r = 0; r < ROWS; r++) {
+            String[] values = new String[headers.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = headers.get(i) + " " + r;
+            }
+            values[legacyColumnIndex.get(ECPLogConstants.requestDate)] = "09-Mar-2010";
+            values[legacyColumnIndex.get(ECPLogConstants.targetDate)] = "14-Mar-2010";
+            values[legacyColumnIndex.get(ECPLogConstants.releasedDate)] = "-";
+            rows[r] = values;
+            rowValues[r] = new ECPRowConverter.RowValues(values, new double[]{Double.NaN, 40246, Double.NaN});
+        }
+    }
+
+    @Benchmark
+    public ECPLog columnPlan() {
+        int r = next++ & (ROWS - 1);
+        return converter.convert(rowValues[r], r);
+    }
+
+    @Benchmark
+    public ECPLog legacyHeaderLookup() {
+        int r = next++ & (ROWS - 1);
+        return legacyConvert(rows[r], r);
+    }
+
+    private String legacyValue(String[] values, String key) {
+        return values[legacyColumnIndex.get(key)];
+    }
+
+    /**
+     * Copy of the conversion before the column plan was introduced.
+     */
+    @SuppressWarnings("deprecation")
+    private ECPLog legacyConvert(String[] values, long count) {
+        ECPLog ecp_object = new ECPLog();
+        ecp_object.set_id(count + 1);
+
+        ecp_object.setCramerVersion(legacyValue(values, ECPLogConstants.cramerVersion));
+        ecp_object.setIsPreRequisite(legacyValue(values, ECPLogConstants.isPreRequisite));
+        ecp_object.setPrereqForLatestEcp(legacyValue(values, ECPLogConstants.prereqForLatestEcp));
+        ecp_object.setLatestEcp(legacyValue(values, ECPLogConstants.latestEcp));
+        ecp_object.setEcpNo(legacyValue(values, ECPLogConstants.ecpNo));
+        if ((legacyValue(values, ECPLogConstants.latestEcp)).equalsIgnoreCase(legacyValue(values, ECPLogConstants.ecpNo))) {
+            ecp_object.setIsThisLatestHF("TRUE");
+        } else {
+            ecp_object.setIsThisLatestHF("FALSE");
+        }
+        ecp_object.setSequence(legacyValue(values, ECPLogConstants.sequence));
+        ecp_object.setOrNo(legacyValue(values, ECPLogConstants.orNo));
+        ecp_object.setDescription(legacyValue(values, ECPLogConstants.description));
+        ecp_object.setStatus(legacyValue(values, ECPLogConstants.status));
+        ecp_object.setFixedBy(legacyValue(values, ECPLogConstants.fixedBy));
+        ecp_object.setModule(legacyValue(values, ECPLogConstants.module));
+        ecp_object.setVersion(legacyValue(values, ECPLogConstants.version));
+        ecp_object.setCaseOrCrNo(legacyValue(values, ECPLogConstants.caseOrCrNo));
+        ecp_object.setRequestor(legacyValue(values, ECPLogConstants.requestor));
+        ecp_object.setFilesModifiedInPerforce(legacyValue(values, ECPLogConstants.filesModifiedInPerforce));
+        ecp_object.setFileLocationInPerforce(legacyValue(values, ECPLogConstants.fileLocationInPerforce));
+        ecp_object.setFilesReleasedToCustomer(legacyValue(values, ECPLogConstants.filesReleasedToCustomer));
+        ecp_object.setType(legacyValue(values, ECPLogConstants.type));
+        ecp_object.setNotes(legacyValue(values, ECPLogConstants.notes));
+        ecp_object.setDownloadCenter(legacyValue(values, ECPLogConstants.downloadCenter));
+        ecp_object.setEcpReplaced(legacyValue(values, ECPLogConstants.ecpReplaced));
+        ecp_object.setAdditionalInfo(legacyValue(values, ECPLogConstants.additionalInfo));
+        ecp_object.setFixRolledIntoModule(legacyValue(values, ECPLogConstants.fixRolledIntoModule));
+        ecp_object.setRolledIntoVersion(legacyValue(values, ECPLogConstants.rolledIntoVersion));
+        ecp_object.setRollupCr(legacyValue(values, ECPLogConstants.rollupCr));
+        ecp_object.setEscapingDefect(legacyValue(values, ECPLogConstants.escapingDefect));
+        ecp_object.setReportingVersion(legacyValue(values, ECPLogConstants.reportingVersion));
+        ecp_object.setOriginalIssue(legacyValue(values, ECPLogConstants.originalIssue));
+        ecp_object.setAddedToExtranet(legacyValue(values, ECPLogConstants.addedToExtranet));
+        ecp_object.setAddedToExtranetUpdate(legacyValue(values, ECPLogConstants.addedToExtranetUpdate));
+        ecp_object.setAddedToPatchBundle(legacyValue(values, ECPLogConstants.addedToPatchBundle));
+        ecp_object.setHfNotBuiltSep(legacyValue(values, ECPLogConstants.hfNotBuiltSep));
+        ecp_object.setC4IssueAlso(legacyValue(values, ECPLogConstants.c4IssueAlso));
+        ecp_object.setC5IssueAlso(legacyValue(values, ECPLogConstants.c5IssueAlso));
+        ecp_object.setMissingBasicFunc(legacyValue(values, ECPLogConstants.missingBasicFunc));
+        ecp_object.setNewComponent(legacyValue(values, ECPLogConstants.newComponent));
+        ecp_object.setCausedByNewComp(legacyValue(values, ECPLogConstants.causedByNewComp));
+        ecp_object.setPlatformIssue(legacyValue(values, ECPLogConstants.platformIssue));
+        ecp_object.setPerfIssue(legacyValue(values, ECPLogConstants.perfIssue));
+        ecp_object.setUpgradeIssue(legacyValue(values, ECPLogConstants.upgradeIssue));
+        ecp_object.setNewFuncAdded(legacyValue(values, ECPLogConstants.newFuncAdded));
+        ecp_object.setMandatoryEcp(legacyValue(values, ECPLogConstants.mandatoryEcp));
+        ecp_object.setSpecificFunc(legacyValue(values, ECPLogConstants.specificFunc));
+        ecp_object.setMultiModulesAffected(legacyValue(values, ECPLogConstants.multiModulesAffected));
+        ecp_object.setSeverity(legacyValue(values, ECPLogConstants.severity));
+        ecp_object.setPriority(legacyValue(values, ECPLogConstants.priority));
+        ecp_object.setEcpFaulty(legacyValue(values, ECPLogConstants.ecpFaulty));
+        ecp_object.setHfRolllupInfo(legacyValue(values, ECPLogConstants.hfRolllupInfo));
+
+        SimpleDateFormat df = new SimpleDateFormat("dd-MMM-yyyy");
+
+        try {
+            ecp_object.setRequestDate(df.parse(legacyValue(values, ECPLogConstants.requestDate)));
+        } catch (ParseException e) {
+            ecp_object.setRequestDate(new Date(0, 0, 0));
+        }
+        try {
+            ecp_object.setTargetDate(df.parse(legacyValue(values, ECPLogConstants.targetDate)));
+        } catch (ParseException e) {
+            ecp_object.setTargetDate(new Date(0, 0, 0));
+        }
+        try {
+            ecp_object.setReleasedDate(df.parse(legacyValue(values, ECPLogConstants.releasedDate)));
+        } catch (ParseException e) {
+            ecp_object.setReleasedDate(new Date(0, 0, 0));
+        }
+        return ecp_object;
+    }
+}
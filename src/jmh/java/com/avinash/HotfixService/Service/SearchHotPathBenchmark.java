@@ -0,0 +1,71 @@
+/**
+ * Request-side hot paths of a search: building the regex terms, sorting the result and
+ * serializing the response.
+ *
+ * @author Avinash Tingre
+ */
+package com.avinash.HotfixService.Service;
+
+import com.avinash.HotfixService.Model.ECPLog;
+import com.avinash.HotfixService.Model.SearchResultMetadata;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchHotPathBenchmark {
+
+    @Param({"1000", "10000"})
+    private int results;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().setFilterProvider(ResultFields.ALL_FIELDS);
+    private List<ECPLog> ecpLogs;
+    private SearchResultMetadata response;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ecpLogs = BenchmarkWorkbooks.ecpLogs(results);
+        response = new SearchResultMetadata();
+        response.setCount(ecpLogs.size());
+        response.setDetails(ecpLogs);
+    }
+
+    /**
+     * Legacy baseline: the regex the removed ECPLogService.formatString built on every request.
+     */
+    @Benchmark
+    public String legacyFormatString() {
+        StringBuffer sb = new StringBuffer(" search console  issue ".trim());
+        sb.insert(0, ".*");
+        sb.append(".*");
+
+        return sb.toString().replaceAll("\\s", ".*");
+    }
+
+    @Benchmark
+    public SearchTerm cachedSearchTerm() {
+        return SearchTerm.of(" search.*console  issue ");
+    }
+
+    @Benchmark
+    public List<ECPLog> sortResults() {
+        List<ECPLog> copy = new ArrayList<>(ecpLogs);
+        Collections.sort(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public byte[] serializeResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * Compares the old two-pass workbook read (getLastRowNum pre-scan followed by the ingest pass)
+ * with the single streaming pass of ECPFileHandler.mergeExcelDataToDB.
+ *
+ * @author Avinash Tingre
+ */
+package com.avinash.HotfixService.Service;
+
+import com.monitorjbl.xlsx.StreamingReader;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WorkbookParseBenchmark {
+
+    @Param({"50000"})
+    private int rows;
+
+    private File workbook;
+    private ECPFileHandler handler;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workbook = BenchmarkWorkbooks.generate(rows);
+        handler = BenchmarkWorkbooks.newFileHandler(workbook);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        workbook.delete();
+    }
+
+    @Benchmark
+    public long singlePass() throws Exception {
+        return handler.mergeExcelDataToDB();
+    }
+
+    @Benchmark
+    public long legacyPreScanThenPass() throws Exception {
+        return legacyLastRowNum() + handler.mergeExcelDataToDB();
+    }
+
+    /**
+     * Copy of the removed ECPFileHandler.getLastRowNum pre-scan.
+     */
+    private int legacyLastRowNum() throws IOException {
+        int last_num = 0;
+        boolean flag = true;
+        try (InputStream fis = new FileInputStream(workbook);
+             Workbook wb = StreamingReader.builder().rowCacheSize(100).bufferSize(4096).open(fis)) {
+            Sheet sheet = wb.getSheet(BenchmarkWorkbooks.SHEET_NAME);
+            for (Row r : sheet) {
+                if (r.getRowNum() >= BenchmarkWorkbooks.HEADER_ROW_NUM) {
+                    for (Cell c : r) {
+                        if (c.getColumnIndex() == 1) {
+                            last_num++;
+                            if (c.getCellType() == CellType.STRING && c.getStringCellValue().equals("eof")) {
+                                flag = false;
+                                break;
+                            }
+                        }
+                    }
+                    if (!flag) {
+                        break;
+                    }
+                }
+            }
+        }
+        return last_num + BenchmarkWorkbooks.HEADER_ROW_NUM - 1;
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * This is a RestController class for endpoints used to monitor the service itself.
+ *
+ * @author Avinash Tingre
+ */
+package com.avinash.HotfixService.Controller;
+
+import com.avinash.HotfixService.Model.CacheStatistics;
+import com.avinash.HotfixService.Model.QueryPlan;
+import com.avinash.HotfixService.Model.SearchCriteria;
+import com.avinash.HotfixService.Service.QueryPlanReporter;
+import com.avinash.HotfixService.Service.SearchResultCache;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/HFLogViewer/admin")
+@Tag(name = "Admin", description = "API for monitoring the hotfix service")
+public class AdminController {
+
+    @Autowired
+    private SearchResultCache resultCache;
+
+    @Autowired
+    private QueryPlanReporter queryPlanReporter;
+
+    @Operation(summary = "Search cache statistics", description = "Hits, misses and evictions of the search result cache.", tags = {"Admin"})
+    @RequestMapping(value = "/cacheStats", method = RequestMethod.GET)
+    public CacheStatistics getCacheStatistics() {
+        return resultCache.getStatistics();
+    }
+
+    /**
+     * Explain the queries sent to MongoDB, filled in with the given sample values.
+     */
+    @Operation(summary = "Explain query plans", description = "Winning plan and scanned vs returned documents of each query shape.", tags = {"Admin"})
+    @RequestMapping(value = "/explain", method = RequestMethod.GET)
+    public List<QueryPlan> explainQueries(
+            @RequestParam(value = "ecpNo", defaultValue = "", required = false) String ecpNo,
+            @RequestParam(value = "description", defaultValue = "", required = false) String description,
+            @RequestParam(value = "cramerVersion", defaultValue = "", required = false) List<String> cramerVersion,
+            @RequestParam(value = "module", defaultValue = "", required = false) List<String> module,
+            @RequestParam(value = "latestEcp", defaultValue = "", required = false) String latestEcp,
+            @RequestParam(value = "host", defaultValue = "", required = false) String host,
+            @RequestParam(value = "page_size", defaultValue = "50", required = false) int page_size) {
+        SearchCriteria criteria = new SearchCriteria(ecpNo, description, cramerVersion, "", "", "", module,
+                "", "", "", "", "");
+        return queryPlanReporter.explainQueryShapes(criteria, page_size, latestEcp, ecpNo, host);
+    }
+}
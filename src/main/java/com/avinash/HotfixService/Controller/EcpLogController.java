@@ -5,21 +5,38 @@
  */
 package com.avinash.HotfixService.Controller;
 
-import com.avinash.HotfixService.HotfixviewerApplication;
 import com.avinash.HotfixService.Model.*;
+import com.avinash.HotfixService.Service.DataGeneration;
+import com.avinash.HotfixService.Service.DataGenerationHolder;
+import com.avinash.HotfixService.Service.DataNotLoadedException;
 import com.avinash.HotfixService.Service.DatabaseLogHandler;
 import com.avinash.HotfixService.Service.ECPLogService;
+import com.avinash.HotfixService.Service.InvalidParameterException;
+import com.avinash.HotfixService.Service.ResultFields;
+import com.avinash.HotfixService.Service.SearchCursor;
+import com.avinash.HotfixService.Service.SearchParameters;
+import com.avinash.HotfixService.Service.SortField;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
 
 @RestController
@@ -27,6 +44,8 @@ import java.util.*;
 @Tag(name = "Hotfix Search", description = "API for fetching hotfixes")
 public class EcpLogController {
     private static final Logger LOG = LoggerFactory.getLogger(EcpLogController.class);
+    //Newline delimited JSON, one hotfix per line.
+    private static final String NDJSON = "application/x-ndjson";
 
     @Autowired
     private ECPLogService ecpService;
@@ -37,12 +56,18 @@ public class EcpLogController {
     @Autowired
     private DatabaseLogHandler dbHandler;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DataGenerationHolder generations;
+
     /**
      * Fetch details of matching hotfixes.
      */
     @Operation(summary = "Find all hotfixes", description = "Hotfix search with given criteria.", tags = {"Hotfix Search"})
     @RequestMapping(value = "/getAllResults", method = RequestMethod.GET)
-    public ResponseEntity<Metadata> getHotfixDetails(
+    public ResponseEntity<MappingJacksonValue> getHotfixDetails(
             @RequestParam(value = "page_no", defaultValue = "-1", required = false) int page_no,
             @RequestParam(value = "page_size", defaultValue = "-1", required = false) int page_size,
             @RequestParam(value = "ecpNo", defaultValue = "", required = false) String ecpNo,
@@ -57,56 +82,182 @@ public class EcpLogController {
             @RequestParam(value = "filesReleasedToCustomer", defaultValue = "", required = false) String filesReleasedToCustomer,
             @RequestParam(value = "rolledIntoVersion", defaultValue = "", required = false) String rolledIntoVersion,
             @RequestParam(value = "specificFunc", defaultValue = "", required = false) String specificFunc,
+            @RequestParam(value = "sort_by", defaultValue = "releasedDate", required = false) String sort_by,
+            @RequestParam(value = "sort_order", defaultValue = "desc", required = false) String sort_order,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "fields", defaultValue = ResultFields.FULL_VIEW, required = false) String fields,
+            @RequestParam(value = "facets", defaultValue = "false", required = false) boolean facets,
             HttpServletRequest httpRequest, @RequestHeader(value = "Hostname", defaultValue = "disabled", required = false) String hostname,
             @RequestHeader(value = "HostAddress", defaultValue = "disabled", required = false) String HostAddress,
             @RequestHeader(value = "NTNET", defaultValue = "disabled", required = false) String ntnet) {
-        Metadata ro = new SearchResultMetadata();
+        SearchResultMetadata ro = new SearchResultMetadata();
         Boolean minimumValuesProvided = ecpService.minimumValuesProvided(ecpNo, description, cramerVersion, latestEcp, requestor,
                 fixedBy, module, caseOrCrNo, filesModifiedInPerforce, filesReleasedToCustomer, rolledIntoVersion,
                 specificFunc);
+        SortField sortField = SortField.of(sort_by);
+        Sort.Direction direction = SearchParameters.sortOrder(sort_order);
+        SearchParameters.checkPage(page_no, page_size);
+        Set<String> selectedFields = ResultFields.parse(fields, sortField);
 
         if(minimumValuesProvided){
-            List<String> requestInput = new ArrayList<String>();
-
-            if (ecpNo.length() > 0) requestInput.add("Hotfix No: " + ecpNo + ", ");
-            if (latestEcp.length() > 0) requestInput.add("Latest Hotfix: " + latestEcp + ", ");
-            if (description.length() > 0) requestInput.add("Description: " + description + ", ");
-            if (cramerVersion.size() > 0) requestInput.add("Versions: " + cramerVersion + ", ");
-            if (requestor.length() > 0) requestInput.add("Requested by: " + requestor + ", ");
-            if (fixedBy.length() > 0) requestInput.add("Fixed by: " + fixedBy + ", ");
-            if (module.size() > 0) requestInput.add("Modules: " + module + ", ");
-            if (caseOrCrNo.length() > 0) requestInput.add("Case or CR No: " + caseOrCrNo + ", ");
-            if (filesModifiedInPerforce.length() > 0) requestInput.add("Files modified: " + filesModifiedInPerforce + ", ");
-            if (filesReleasedToCustomer.length() > 0) requestInput.add("Files released: " + filesReleasedToCustomer + ", ");
-            if (specificFunc.length() > 0) requestInput.add("Specific function: " + specificFunc + ", ");
+            List<String> requestInput = describeSearchInput(ecpNo, description, cramerVersion, latestEcp, requestor,
+                    fixedBy, module, caseOrCrNo, filesModifiedInPerforce, filesReleasedToCustomer, specificFunc);
 
             logToDatabase(hostname, HostAddress, ntnet, requestInput, "/getAllResults");
 
-            if (cramerVersion.isEmpty()) {
-                cramerVersion = HotfixviewerApplication.distinctVersion;
+            DataGeneration generation = generations.current();
+            List<ECPLog> ecp_list;
+            if (cursor == null) {
+                ecp_list = ecpService.searchData(generation, ecpNo, description, cramerVersion, latestEcp, requestor,
+                        fixedBy, module, caseOrCrNo, filesModifiedInPerforce, filesReleasedToCustomer, rolledIntoVersion,
+                        specificFunc, page_no, page_size, sortField, direction, selectedFields);
+            } else {
+                // Cursor paging: an empty cursor starts at the first page.
+                SearchCursor after = cursor.isEmpty() ? null : SearchCursor.decode(cursor);
+                SearchPage page = ecpService.searchAfter(generation, ecpNo, description, cramerVersion, latestEcp,
+                        requestor, fixedBy, module, caseOrCrNo, filesModifiedInPerforce, filesReleasedToCustomer,
+                        rolledIntoVersion, specificFunc, after, page_size, sortField, direction, selectedFields);
+                ecp_list = page.getDetails();
+                ro.setNextCursor(page.getNextCursor());
             }
-            if (module.isEmpty()) {
-                module = HotfixviewerApplication.distinctModules;
-            }
-
-
-            List<ECPLog> ecp_list = ecpService.searchData(ecpNo, description, cramerVersion, latestEcp, requestor,
-                    fixedBy, module, caseOrCrNo, filesModifiedInPerforce, filesReleasedToCustomer, rolledIntoVersion,
-                    specificFunc, page_no, page_size);
-
 
             ro.setCount(ecp_list.size());
             ro.setDetails(ecp_list);
+            if (facets) {
+                ro.setFacets(ecpService.countFacets(generation, ecpNo, description, cramerVersion, latestEcp,
+                        requestor, fixedBy, module, caseOrCrNo, filesModifiedInPerforce, filesReleasedToCustomer,
+                        rolledIntoVersion, specificFunc));
+            }
         }else {
             ro.setCount(0);
             ro.setDetails(null);
         }
 
-        return ResponseEntity.ok().body(ro);
+        return ResponseEntity.ok().body(withFields(ro, selectedFields));
 
     }
 
 
+    /**
+     * Stream all matching hotfixes as newline delimited JSON. Each hotfix is written as soon as
+     * it is read, so broad searches are never held in memory as a whole.
+     */
+    @Operation(summary = "Stream all hotfixes", description = "Unpaged hotfix search streamed as NDJSON.", tags = {"Hotfix Search"})
+    @RequestMapping(value = "/streamAllResults", method = RequestMethod.GET, produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamHotfixDetails(
+            @RequestParam(value = "ecpNo", defaultValue = "", required = false) String ecpNo,
+            @RequestParam(value = "description", defaultValue = "", required = false) String description,
+            @RequestParam(value = "cramerVersion", defaultValue = "", required = false) List<String> cramerVersion,
+            @RequestParam(value = "latestEcp", defaultValue = "", required = false) String latestEcp,
+            @RequestParam(value = "requestor", defaultValue = "", required = false) String requestor,
+            @RequestParam(value = "fixedBy", defaultValue = "", required = false) String fixedBy,
+            @RequestParam(value = "module", defaultValue = "", required = false) List<String> module,
+            @RequestParam(value = "caseOrCrNo", defaultValue = "", required = false) String caseOrCrNo,
+            @RequestParam(value = "filesModifiedInPerforce", defaultValue = "", required = false) String filesModifiedInPerforce,
+            @RequestParam(value = "filesReleasedToCustomer", defaultValue = "", required = false) String filesReleasedToCustomer,
+            @RequestParam(value = "rolledIntoVersion", defaultValue = "", required = false) String rolledIntoVersion,
+            @RequestParam(value = "specificFunc", defaultValue = "", required = false) String specificFunc,
+            @RequestParam(value = "sort_by", defaultValue = "releasedDate", required = false) String sort_by,
+            @RequestParam(value = "sort_order", defaultValue = "desc", required = false) String sort_order,
+            HttpServletRequest httpRequest, @RequestHeader(value = "Hostname", defaultValue = "disabled", required = false) String hostname,
+            @RequestHeader(value = "HostAddress", defaultValue = "disabled", required = false) String HostAddress,
+            @RequestHeader(value = "NTNET", defaultValue = "disabled", required = false) String ntnet) {
+        Boolean minimumValuesProvided = ecpService.minimumValuesProvided(ecpNo, description, cramerVersion, latestEcp, requestor,
+                fixedBy, module, caseOrCrNo, filesModifiedInPerforce, filesReleasedToCustomer, rolledIntoVersion,
+                specificFunc);
+        SortField sortField = SortField.of(sort_by);
+        Sort.Direction direction = SearchParameters.sortOrder(sort_order);
+
+        if (!minimumValuesProvided) {
+            return ResponseEntity.ok().body(out -> { });
+        }
+
+        List<String> requestInput = describeSearchInput(ecpNo, description, cramerVersion, latestEcp, requestor,
+                fixedBy, module, caseOrCrNo, filesModifiedInPerforce, filesReleasedToCustomer, specificFunc);
+        logToDatabase(hostname, HostAddress, ntnet, requestInput, "/streamAllResults");
+
+        DataGeneration generation = generations.current();
+        ObjectWriter writer = objectMapper.writerFor(ECPLog.class);
+        StreamingResponseBody body = out -> {
+            try {
+                ecpService.streamData(generation, ecpNo, description, cramerVersion, latestEcp, requestor,
+                        fixedBy, module, caseOrCrNo, filesModifiedInPerforce, filesReleasedToCustomer, rolledIntoVersion,
+                        specificFunc, sortField, direction, ecp -> {
+                            try {
+                                out.write(writer.writeValueAsBytes(ecp));
+                                out.write('\n');
+                            } catch (IOException ex) {
+                                throw new UncheckedIOException(ex);
+                            }
+                        });
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+            out.flush();
+        };
+        return ResponseEntity.ok().body(body);
+    }
+
+    /**
+     * Fetch one page of matching hotfixes together with the total count of matching records,
+     * and optionally the counts per version and module, from a single search.
+     */
+    @Operation(summary = "Search hotfixes", description = "Hotfix search returning the page, total count and facet counts together.", tags = {"Hotfix Search"})
+    @RequestMapping(value = "/search", method = RequestMethod.GET)
+    public ResponseEntity<MappingJacksonValue> search(
+            @RequestParam(value = "page_no", defaultValue = "-1", required = false) int page_no,
+            @RequestParam(value = "page_size", defaultValue = "-1", required = false) int page_size,
+            @RequestParam(value = "ecpNo", defaultValue = "", required = false) String ecpNo,
+            @RequestParam(value = "description", defaultValue = "", required = false) String description,
+            @RequestParam(value = "cramerVersion", defaultValue = "", required = false) List<String> cramerVersion,
+            @RequestParam(value = "latestEcp", defaultValue = "", required = false) String latestEcp,
+            @RequestParam(value = "requestor", defaultValue = "", required = false) String requestor,
+            @RequestParam(value = "fixedBy", defaultValue = "", required = false) String fixedBy,
+            @RequestParam(value = "module", defaultValue = "", required = false) List<String> module,
+            @RequestParam(value = "caseOrCrNo", defaultValue = "", required = false) String caseOrCrNo,
+            @RequestParam(value = "filesModifiedInPerforce", defaultValue = "", required = false) String filesModifiedInPerforce,
+            @RequestParam(value = "filesReleasedToCustomer", defaultValue = "", required = false) String filesReleasedToCustomer,
+            @RequestParam(value = "rolledIntoVersion", defaultValue = "", required = false) String rolledIntoVersion,
+            @RequestParam(value = "specificFunc", defaultValue = "", required = false) String specificFunc,
+            @RequestParam(value = "sort_by", defaultValue = "releasedDate", required = false) String sort_by,
+            @RequestParam(value = "sort_order", defaultValue = "desc", required = false) String sort_order,
+            @RequestParam(value = "fields", defaultValue = ResultFields.FULL_VIEW, required = false) String fields,
+            @RequestParam(value = "facets", defaultValue = "false", required = false) boolean facets,
+            HttpServletRequest httpRequest, @RequestHeader(value = "Hostname", defaultValue = "disabled", required = false) String hostname,
+            @RequestHeader(value = "HostAddress", defaultValue = "disabled", required = false) String HostAddress,
+            @RequestHeader(value = "NTNET", defaultValue = "disabled", required = false) String ntnet) {
+        SearchResultMetadata ro = new SearchResultMetadata();
+        Boolean minimumValuesProvided = ecpService.minimumValuesProvided(ecpNo, description, cramerVersion, latestEcp, requestor,
+                fixedBy, module, caseOrCrNo, filesModifiedInPerforce, filesReleasedToCustomer, rolledIntoVersion,
+                specificFunc);
+        SortField sortField = SortField.of(sort_by);
+        Sort.Direction direction = SearchParameters.sortOrder(sort_order);
+        SearchParameters.checkPage(page_no, page_size);
+        Set<String> selectedFields = ResultFields.parse(fields, sortField);
+
+        if (minimumValuesProvided) {
+            List<String> requestInput = describeSearchInput(ecpNo, description, cramerVersion, latestEcp, requestor,
+                    fixedBy, module, caseOrCrNo, filesModifiedInPerforce, filesReleasedToCustomer, specificFunc);
+            logToDatabase(hostname, HostAddress, ntnet, requestInput, "/search");
+
+            SearchResult result = ecpService.searchWithTotal(generations.current(), ecpNo, description, cramerVersion, latestEcp, requestor,
+                    fixedBy, module, caseOrCrNo, filesModifiedInPerforce, filesReleasedToCustomer, rolledIntoVersion,
+                    specificFunc, page_no, page_size, sortField, direction,
+                    selectedFields, facets);
+
+            ro.setCount(result.getDetails().size());
+            ro.setDetails(result.getDetails());
+            ro.setTotal(result.getTotal());
+            ro.setFacets(result.getFacets());
+        } else {
+            ro.setCount(0);
+            ro.setTotal(0L);
+            ro.setDetails(null);
+        }
+
+        return ResponseEntity.ok().body(withFields(ro, selectedFields));
+    }
+
     /***
      * Ge count of total matching records for given parameters.
      */
@@ -134,14 +285,7 @@ public class EcpLogController {
         Metadata resultObject = new SearchResultMetadata();
 
         if (minimumValuesProvided){
-            if (cramerVersion.isEmpty()) {
-                cramerVersion = HotfixviewerApplication.distinctVersion;
-            }
-            if (module.isEmpty()) {
-                module = HotfixviewerApplication.distinctModules;
-            }
-
-            Long result = ecpService.countMatchingRecords(ecpNo, description, cramerVersion, latestEcp, requestor,
+            Long result = ecpService.countMatchingRecords(generations.current(), ecpNo, description, cramerVersion, latestEcp, requestor,
                     fixedBy, module, caseOrCrNo, filesModifiedInPerforce, filesReleasedToCustomer, rolledIntoVersion,
                     specificFunc);
 
@@ -160,6 +304,52 @@ public class EcpLogController {
     }
 
 
+    private List<String> describeSearchInput(String ecpNo, String description, List<String> cramerVersion,
+                                             String latestEcp, String requestor, String fixedBy, List<String> module,
+                                             String caseOrCrNo, String filesModifiedInPerforce,
+                                             String filesReleasedToCustomer, String specificFunc) {
+        List<String> requestInput = new ArrayList<String>();
+
+        if (ecpNo.length() > 0) requestInput.add("Hotfix No: " + ecpNo + ", ");
+        if (latestEcp.length() > 0) requestInput.add("Latest Hotfix: " + latestEcp + ", ");
+        if (description.length() > 0) requestInput.add("Description: " + description + ", ");
+        if (cramerVersion.size() > 0) requestInput.add("Versions: " + cramerVersion + ", ");
+        if (requestor.length() > 0) requestInput.add("Requested by: " + requestor + ", ");
+        if (fixedBy.length() > 0) requestInput.add("Fixed by: " + fixedBy + ", ");
+        if (module.size() > 0) requestInput.add("Modules: " + module + ", ");
+        if (caseOrCrNo.length() > 0) requestInput.add("Case or CR No: " + caseOrCrNo + ", ");
+        if (filesModifiedInPerforce.length() > 0) requestInput.add("Files modified: " + filesModifiedInPerforce + ", ");
+        if (filesReleasedToCustomer.length() > 0) requestInput.add("Files released: " + filesReleasedToCustomer + ", ");
+        if (specificFunc.length() > 0) requestInput.add("Specific function: " + specificFunc + ", ");
+
+        return requestInput;
+    }
+
+    /**
+     * Invalid paging, sorting, cursor or fields parameters are reported as a bad request.
+     */
+    @ExceptionHandler(InvalidParameterException.class)
+    public ResponseEntity<String> handleInvalidParameter(InvalidParameterException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    /**
+     * Lookups served only from the loaded data are unavailable until the first refresh.
+     */
+    @ExceptionHandler(DataNotLoadedException.class)
+    public ResponseEntity<String> handleDataNotLoaded(DataNotLoadedException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ex.getMessage());
+    }
+
+    /**
+     * Response serialising only the selected hotfix attributes, or all if fields is null.
+     */
+    private static MappingJacksonValue withFields(SearchResultMetadata ro, Set<String> fields) {
+        MappingJacksonValue body = new MappingJacksonValue(ro);
+        body.setFilters(ResultFields.filters(fields));
+        return body;
+    }
+
     private void logToDatabase(String hostname, String hostaddress, String ntnet,
                                List<String> searchInput, String requestName) {
 
@@ -206,8 +396,49 @@ public class EcpLogController {
 
     }
 
+    /**
+     * Get all hotfixes which supersede the given hotfix, directly or through later hotfixes.
+     */
+    @RequestMapping(value = "/getSupersedingHFs", method = RequestMethod.GET)
+    public ResponseEntity<SupersedingHFMetadata> getSupersedingHFs(
+            @RequestParam(value = "ecpNo", required = true) String ecpNo,
+            HttpServletRequest request) {
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, headerPrefix);
+
+        List<String> superseding = ecpService.getSupersedingHF(ecpNo);
+        SupersedingHFMetadata ro = new SupersedingHFMetadata();
+        ro.setCount(superseding.size());
+        ro.setDetails(superseding);
+
+        return ResponseEntity.ok().headers(headers).body(ro);
+    }
+
+    /**
+     * Get all hotfixes which must be installed before the given hotfix, in install order.
+     */
+    @RequestMapping(value = "/getPrerequisiteHFs", method = RequestMethod.GET)
+    public ResponseEntity<PrerequisiteHFMetadata> getPrerequisiteHFs(
+            @RequestParam(value = "ecpNo", required = true) String ecpNo,
+            HttpServletRequest request) {
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, headerPrefix);
+
+        List<String> prerequisites = ecpService.getPrerequisiteHF(ecpNo);
+        PrerequisiteHFMetadata ro = new PrerequisiteHFMetadata();
+        ro.setCount(prerequisites.size());
+        ro.setDetails(prerequisites);
+
+        return ResponseEntity.ok().headers(headers).body(ro);
+    }
+
+    /**
+     * Distinct cramerVersions, served as the JSON serialised when the data was loaded.
+     */
     @RequestMapping(value = "/getDistinctCramerVersions", method = RequestMethod.GET)
-    public ResponseEntity<List<String>> getDistinctCramerVersions(HttpServletRequest request) {
+    public ResponseEntity<byte[]> getDistinctCramerVersions(HttpServletRequest request) {
 
 
         // To restrict the requests only from specific hosts, Uncomment the below line.
@@ -215,15 +446,34 @@ public class EcpLogController {
         HttpHeaders headers = new HttpHeaders();
         headers.add(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, headerPrefix);
 
-        List<String> result = new ArrayList<>(new HashSet<>(HotfixviewerApplication.distinctVersion));
+        byte[] result = generations.current().getDistinctVersionsJson();
 
-        return ResponseEntity.ok().headers(headers).body(result);
+        return ResponseEntity.ok().headers(headers).contentType(MediaType.APPLICATION_JSON).body(result);
 
     }
 
+    /**
+     * Latest database summary, served from the current data generation once loaded. Before the
+     * first load it is read from Database, or 503 if there is none yet. 204 if Database held no
+     * summary when the data was loaded, as with the sample data.
+     */
     @RequestMapping(value = "/getSummary", method = RequestMethod.GET)
-    public HotfixSummary getDatabaseSummary() {
-        return dbHandler.getSummary();
+    public ResponseEntity<byte[]> getDatabaseSummary() throws JsonProcessingException {
+        DataGeneration generation = generations.current();
+        byte[] summary;
+        if (generation.isLoaded()) {
+            summary = generation.getSummaryJson();
+        } else {
+            HotfixSummary stored = dbHandler.getSummary();
+            if (stored == null) {
+                throw new DataNotLoadedException("Hotfix data is still being loaded, please retry shortly");
+            }
+            summary = objectMapper.writeValueAsBytes(stored);
+        }
+        if (summary == null) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(summary);
     }
 
 
@@ -234,17 +484,20 @@ public class EcpLogController {
         return dbHandler.getUserDetails(host);
     }
 
+    /**
+     * Distinct modules, served as the JSON serialised when the data was loaded.
+     */
     @RequestMapping(value = "/getDistinctModules", method = RequestMethod.GET)
-    public ResponseEntity<List<String>> getDistinctModules(HttpServletRequest request) {
+    public ResponseEntity<byte[]> getDistinctModules(HttpServletRequest request) {
 
         // To restrict the requests only from specific hosts, Uncomment the below line.
         // if (customConfig.getAllowedHosts().contains(client)) {
         HttpHeaders headers = new HttpHeaders();
         headers.add(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, headerPrefix);
 
-        List<String> result = new ArrayList<>(new HashSet<>(HotfixviewerApplication.distinctModules));
+        byte[] result = generations.current().getDistinctModulesJson();
 
-        return ResponseEntity.ok().headers(headers).body(result);
+        return ResponseEntity.ok().headers(headers).contentType(MediaType.APPLICATION_JSON).body(result);
 
     }
 
@@ -6,10 +6,14 @@
 
 package com.avinash.HotfixService;
 
-import com.avinash.HotfixService.Controller.EcpLogController;
+import com.avinash.HotfixService.Model.ECPLog;
 import com.avinash.HotfixService.Model.HotfixSummary;
+import com.avinash.HotfixService.Service.DataGenerationHolder;
+import com.avinash.HotfixService.Service.DatabaseLogHandler;
 import com.avinash.HotfixService.Service.ECPFileHandler;
+import com.avinash.HotfixService.Service.ECPFileWatcher;
 import com.avinash.HotfixService.Service.ECPLogService;
+import com.avinash.HotfixService.Service.ResultFields;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.info.License;
@@ -20,14 +24,13 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
 
 @EnableScheduling
 @SpringBootApplication
@@ -36,14 +39,16 @@ public class HotfixviewerApplication implements CommandLineRunner {
     private static final Logger LOG = LoggerFactory.getLogger(HotfixviewerApplication.class);
     //Duration in miliseconds
     private static final long SCHEDULE_DURATION = 32400000;
-    public static List<String> distinctVersion = new ArrayList<String>();
-    public static List<String> distinctModules = new ArrayList<String>();
     @Autowired
     ECPLogService ecpService;
     @Autowired
     ECPFileHandler ecpHandler;
     @Autowired
-    EcpLogController ecpController;
+    DatabaseLogHandler dbHandler;
+    @Autowired
+    ECPFileWatcher fileWatcher;
+    @Autowired
+    DataGenerationHolder generations;
     @Value("${app.use_sample_data}")
     Boolean isLoadSampleData;
 
@@ -64,6 +69,14 @@ public class HotfixviewerApplication implements CommandLineRunner {
     }
 
 
+    /**
+     * Serialise all hotfix attributes unless a search selects fields.
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer resultFieldsCustomizer() {
+        return builder -> builder.filters(ResultFields.ALL_FIELDS);
+    }
+
     /**
      * This method runs immediately after starting spring boot app.
      * It will delete old records from Database and will add all new records from excel into DB.
@@ -72,7 +85,19 @@ public class HotfixviewerApplication implements CommandLineRunner {
     @Override
     public void run(String... args) throws Exception {
         LOG.info("============ Hotfix Application Started ============");
+        ecpService.provisionIndexes();
         refreshDatabase();
+        if (!isLoadSampleData) {
+            fileWatcher.start(this::refreshOnFileChange);
+        }
+    }
+
+    private void refreshOnFileChange() {
+        try {
+            refreshDatabase();
+        } catch (Exception ex) {
+            LOG.error("Refresh after excel file change failed.", ex);
+        }
     }
 
 
@@ -84,18 +109,23 @@ public class HotfixviewerApplication implements CommandLineRunner {
         } else {
 
             long total_records_inserted = ecpHandler.mergeExcelDataToDB();
-            LOG.info("Total records inserted: " + total_records_inserted + "\n");
-
-            LOG.info("====== Database Summary ======");
-            HotfixSummary hfSummary = ecpController.getDatabaseSummary();
-            LOG.info("Total hotfixes in DB: " + hfSummary.getTotalHotfixes());
-            LOG.info("Newly added hotfixes: " + hfSummary.getNewlyAddedHotfixes());
+            if (total_records_inserted == ECPFileHandler.SKIPPED) {
+                //Nothing changed in DB; the data generation only needs loading once after startup.
+                if (generations.current().isLoaded()) {
+                    return;
+                }
+            } else {
+                LOG.info("Total records inserted: " + total_records_inserted + "\n");
+
+                LOG.info("====== Database Summary ======");
+                HotfixSummary hfSummary = dbHandler.getSummary();
+                LOG.info("Total hotfixes in DB: " + hfSummary.getTotalHotfixes());
+                LOG.info("Newly added hotfixes: " + hfSummary.getNewlyAddedHotfixes());
+            }
         }
 
-        Set<String> version_set = ecpService.getDistinctVersions();
-        Set<String> module_set = ecpService.getDistinctModules();
-        distinctVersion.addAll(version_set);
-        distinctModules.addAll(module_set);
+        List<ECPLog> all_ecp = ecpService.findAll();
+        ecpService.publishGeneration(all_ecp, dbHandler.getSummary());
 
     }
 
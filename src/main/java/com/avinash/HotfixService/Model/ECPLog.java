@@ -5,13 +5,44 @@
  */
 package com.avinash.HotfixService.Model;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.util.Comparator;
 import java.util.Date;
 
 @Document("HotfixDetails")
-public class ECPLog implements Comparable, Cloneable {
+@CompoundIndexes({
+        //Default search order; MongoDB walks it backwards for newest first.
+        @CompoundIndex(name = "releasedDate_id", def = "{'releasedDate': 1, '_id': 1}"),
+        //The other sort fields of SortField, each with the _id tie-break.
+        @CompoundIndex(name = "requestDate_id", def = "{'requestDate': 1, '_id': 1}"),
+        @CompoundIndex(name = "targetDate_id", def = "{'targetDate': 1, '_id': 1}"),
+        //Also serves the ecpNo lookups of the supersession queries.
+        @CompoundIndex(name = "ecpNo_id", def = "{'ecpNo': 1, '_id': 1}"),
+        @CompoundIndex(name = "cramerVersion_id", def = "{'cramerVersion': 1, '_id': 1}"),
+        @CompoundIndex(name = "module_id", def = "{'module': 1, '_id': 1}"),
+        @CompoundIndex(name = "requestor_id", def = "{'requestor': 1, '_id': 1}"),
+        @CompoundIndex(name = "fixedBy_id", def = "{'fixedBy': 1, '_id': 1}"),
+        //Searches filtered on version and module, in release order.
+        @CompoundIndex(name = "cramerVersion_module_releasedDate", def = "{'cramerVersion': 1, 'module': 1, 'releasedDate': 1}"),
+        //Underlying hotfixes of a latest hotfix, in findByLatestEcp order.
+        @CompoundIndex(name = "latestEcp_sequence", def = "{'latestEcp': 1, 'sequence': -1}")
+})
+@JsonFilter(ECPLog.FIELD_FILTER)
+public class ECPLog implements Comparable<ECPLog>, Cloneable {
+    //Jackson filter selecting the attributes returned by a search (see ResultFields).
+    public static final String FIELD_FILTER = "ecpLogFields";
+
+    private static final Comparator<ECPLog> NEWEST_FIRST = Comparator
+            .comparing(ECPLog::getReleasedDate, Comparator.nullsFirst(Comparator.<Date>naturalOrder()))
+            .thenComparingLong(ECPLog::get_id)
+            .reversed();
+
     @Id
     private long _id;
     private String cramerVersion;
@@ -73,6 +104,10 @@ public class ECPLog implements Comparable, Cloneable {
     private String ecpFaulty;
     private String hfRolllupInfo;
 
+    //Hash of all parsed columns, used by the incremental refresh to detect changed rows.
+    @JsonIgnore
+    private String contentHash;
+
     public long get_id() {
         return _id;
     }
@@ -498,6 +533,14 @@ public class ECPLog implements Comparable, Cloneable {
     }
 
 
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
     @Override
     public String toString() {
         return "ECPLog [_id=" + _id + ", cramerVersion=" + cramerVersion + ", isPreRequisite=" + isPreRequisite
@@ -522,26 +565,12 @@ public class ECPLog implements Comparable, Cloneable {
                 + ", ecpFaulty=" + ecpFaulty + ", hfRolllupInfo=" + hfRolllupInfo + "]";
     }
 
+    /**
+     * Newest release first; records without release date last, ties broken on _id.
+     */
     @Override
-    public int compareTo(Object o) {
-        try {
-
-            Date compareReleasedDate = ((ECPLog) o).getReleasedDate();
-            Date thisCompareDate = this.getReleasedDate();
-
-
-            if (compareReleasedDate.compareTo(thisCompareDate) > 0) {
-                return 1;
-            } else if (compareReleasedDate.compareTo(thisCompareDate) < 0) {
-                return -1;
-            } else {
-                return -1;
-            }
-        } catch (Exception ex) {
-
-            return -1;
-        }
-
+    public int compareTo(ECPLog o) {
+        return NEWEST_FIRST.compare(this, o);
     }
 
     @Override
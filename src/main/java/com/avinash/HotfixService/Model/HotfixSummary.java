@@ -1,5 +1,6 @@
 package com.avinash.HotfixService.Model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Date;
@@ -11,6 +12,17 @@ public class HotfixSummary {
     private long totalHotfixes;
     private long newlyAddedHotfixes;
 
+    //Fingerprint of the excel file this summary was loaded from; stored, not served by /getSummary.
+    @JsonIgnore
+    private long sourceFileSize;
+    @JsonIgnore
+    private Date sourceFileModifiedAt;
+    @JsonIgnore
+    private String sourceFileChecksum;
+    //Ingest settings the data was loaded with; a change forces a reload of an unchanged file.
+    @JsonIgnore
+    private String ingestSettings;
+
     public Date getDatabaseCreatedAt() {
         return databaseCreatedAt;
     }
@@ -35,5 +47,36 @@ public class HotfixSummary {
         this.newlyAddedHotfixes = newlyAddedHotfixes;
     }
 
+    public long getSourceFileSize() {
+        return sourceFileSize;
+    }
+
+    public void setSourceFileSize(long sourceFileSize) {
+        this.sourceFileSize = sourceFileSize;
+    }
+
+    public Date getSourceFileModifiedAt() {
+        return sourceFileModifiedAt;
+    }
+
+    public void setSourceFileModifiedAt(Date sourceFileModifiedAt) {
+        this.sourceFileModifiedAt = sourceFileModifiedAt;
+    }
+
+    public String getSourceFileChecksum() {
+        return sourceFileChecksum;
+    }
+
+    public void setSourceFileChecksum(String sourceFileChecksum) {
+        this.sourceFileChecksum = sourceFileChecksum;
+    }
+
+    public String getIngestSettings() {
+        return ingestSettings;
+    }
+
+    public void setIngestSettings(String ingestSettings) {
+        this.ingestSettings = ingestSettings;
+    }
 
 }
@@ -0,0 +1,101 @@
+/**
+ * Model class for the explain output of one query shape, sent by the admin endpoint.
+ *
+ * @author Avinash Tingre
+ */
+package com.avinash.HotfixService.Model;
+
+public class QueryPlan {
+
+    private String name;
+    private String collection;
+    private String filter;
+    private String sort;
+    //Stages of the winning plan from the outermost to the innermost, e.g. "LIMIT > FETCH > IXSCAN(releasedDate_id)".
+    private String winningPlan;
+    private boolean collectionScan;
+    private long keysExamined;
+    private long docsExamined;
+    private long returned;
+    private long executionTimeMillis;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getCollection() {
+        return collection;
+    }
+
+    public void setCollection(String collection) {
+        this.collection = collection;
+    }
+
+    public String getFilter() {
+        return filter;
+    }
+
+    public void setFilter(String filter) {
+        this.filter = filter;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+
+    public String getWinningPlan() {
+        return winningPlan;
+    }
+
+    public void setWinningPlan(String winningPlan) {
+        this.winningPlan = winningPlan;
+    }
+
+    public boolean isCollectionScan() {
+        return collectionScan;
+    }
+
+    public void setCollectionScan(boolean collectionScan) {
+        this.collectionScan = collectionScan;
+    }
+
+    public long getKeysExamined() {
+        return keysExamined;
+    }
+
+    public void setKeysExamined(long keysExamined) {
+        this.keysExamined = keysExamined;
+    }
+
+    public long getDocsExamined() {
+        return docsExamined;
+    }
+
+    public void setDocsExamined(long docsExamined) {
+        this.docsExamined = docsExamined;
+    }
+
+    public long getReturned() {
+        return returned;
+    }
+
+    public void setReturned(long returned) {
+        this.returned = returned;
+    }
+
+    public long getExecutionTimeMillis() {
+        return executionTimeMillis;
+    }
+
+    public void setExecutionTimeMillis(long executionTimeMillis) {
+        this.executionTimeMillis = executionTimeMillis;
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * Model class holding the search parameters of a hotfix search, as entered by the user.
+ *
+ * @author Avinash Tingre
+ */
+package com.avinash.HotfixService.Model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+
+public class SearchCriteria {
+    private final String ecpNo;
+    private final String description;
+    private final List<String> cramerVersion;
+    private final String latestEcp;
+    private final String requestor;
+    private final String fixedBy;
+    private final List<String> module;
+    private final String caseOrCrNo;
+    private final String filesModifiedInPerforce;
+    private final String filesReleasedToCustomer;
+    private final String rolledIntoVersion;
+    private final String specificFunc;
+
+    public SearchCriteria(String ecpNo, String description, List<String> cramerVersion, String latestEcp,
+                          String requestor, String fixedBy, List<String> module, String caseOrCrNo,
+                          String filesModifiedInPerforce, String filesReleasedToCustomer, String rolledIntoVersion,
+                          String specificFunc) {
+        this.ecpNo = ecpNo;
+        this.description = description;
+        this.cramerVersion = cramerVersion;
+        this.latestEcp = latestEcp;
+        this.requestor = requestor;
+        this.fixedBy = fixedBy;
+        this.module = module;
+        this.caseOrCrNo = caseOrCrNo;
+        this.filesModifiedInPerforce = filesModifiedInPerforce;
+        this.filesReleasedToCustomer = filesReleasedToCustomer;
+        this.rolledIntoVersion = rolledIntoVersion;
+        this.specificFunc = specificFunc;
+    }
+
+    public String getEcpNo() {
+        return ecpNo;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public List<String> getCramerVersion() {
+        return cramerVersion;
+    }
+
+    public String getLatestEcp() {
+        return latestEcp;
+    }
+
+    public String getRequestor() {
+        return requestor;
+    }
+
+    public String getFixedBy() {
+        return fixedBy;
+    }
+
+    public List<String> getModule() {
+        return module;
+    }
+
+    public String getCaseOrCrNo() {
+        return caseOrCrNo;
+    }
+
+    public String getFilesModifiedInPerforce() {
+        return filesModifiedInPerforce;
+    }
+
+    public String getFilesReleasedToCustomer() {
+        return filesReleasedToCustomer;
+    }
+
+    public String getRolledIntoVersion() {
+        return rolledIntoVersion;
+    }
+
+    public String getSpecificFunc() {
+        return specificFunc;
+    }
+
+    /**
+     * Equivalent criteria in a canonical form: terms trimmed with whitespace runs collapsed and
+     * version/module lists sorted without duplicates. Searches which only differ in these
+     * respects return the same records, and have equal normalized criteria.
+     */
+    public SearchCriteria normalized() {
+        return new SearchCriteria(normalize(ecpNo), normalize(description), normalize(cramerVersion),
+                normalize(latestEcp), normalize(requestor), normalize(fixedBy), normalize(module),
+                normalize(caseOrCrNo), normalize(filesModifiedInPerforce), normalize(filesReleasedToCustomer),
+                normalize(rolledIntoVersion), normalize(specificFunc));
+    }
+
+    private static String normalize(String term) {
+        return term == null ? null : term.trim().replaceAll("\\s+", " ");
+    }
+
+    private static List<String> normalize(List<String> values) {
+        return values == null ? null : new ArrayList<>(new TreeSet<>(values));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        SearchCriteria that = (SearchCriteria) o;
+        return Objects.equals(ecpNo, that.ecpNo) && Objects.equals(description, that.description)
+                && Objects.equals(cramerVersion, that.cramerVersion) && Objects.equals(latestEcp, that.latestEcp)
+                && Objects.equals(requestor, that.requestor) && Objects.equals(fixedBy, that.fixedBy)
+                && Objects.equals(module, that.module) && Objects.equals(caseOrCrNo, that.caseOrCrNo)
+                && Objects.equals(filesModifiedInPerforce, that.filesModifiedInPerforce)
+                && Objects.equals(filesReleasedToCustomer, that.filesReleasedToCustomer)
+                && Objects.equals(rolledIntoVersion, that.rolledIntoVersion)
+                && Objects.equals(specificFunc, that.specificFunc);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(ecpNo, description, cramerVersion, latestEcp, requestor, fixedBy, module, caseOrCrNo,
+                filesModifiedInPerforce, filesReleasedToCustomer, rolledIntoVersion, specificFunc);
+    }
+}
@@ -0,0 +1,30 @@
+/**
+ * Model class holding one page of a cursor paged hotfix search and the cursor token for the
+ * page after it.
+ *
+ * @author Avinash Tingre
+ */
+package com.avinash.HotfixService.Model;
+
+import java.util.List;
+
+public class SearchPage {
+    private final List<ECPLog> details;
+    private final String nextCursor;
+
+    public SearchPage(List<ECPLog> details, String nextCursor) {
+        this.details = details;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<ECPLog> getDetails() {
+        return details;
+    }
+
+    /**
+     * Token for the next page, or null if this is the last page.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * Model class holding one page of a hotfix search together with the total number of matching
+ * records and, if requested, the matching record counts per facet value.
+ *
+ * @author Avinash Tingre
+ */
+package com.avinash.HotfixService.Model;
+
+import java.util.List;
+import java.util.Map;
+
+public class SearchResult {
+    private final List<ECPLog> details;
+    private final long total;
+    private final Map<String, Map<String, Long>> facets;
+
+    public SearchResult(List<ECPLog> details, long total, Map<String, Map<String, Long>> facets) {
+        this.details = details;
+        this.total = total;
+        this.facets = facets;
+    }
+
+    public List<ECPLog> getDetails() {
+        return details;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public Map<String, Map<String, Long>> getFacets() {
+        return facets;
+    }
+}
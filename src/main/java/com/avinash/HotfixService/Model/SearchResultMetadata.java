@@ -5,9 +5,46 @@
  */
 package com.avinash.HotfixService.Model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
+import java.util.Map;
 
 public class SearchResultMetadata extends Metadata<Integer, List<ECPLog>> {
 
+    //Total number of matching records when count only holds the size of the returned page.
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long total;
+
+    //Token for fetching the page after this one with cursor paging, null on the last page.
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
+    //Matching record counts per facet value, e.g. facets.cramerVersion["8.1"]. Only sent when requested.
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, Map<String, Long>> facets;
+
+    public Long getTotal() {
+        return total;
+    }
+
+    public void setTotal(Long total) {
+        this.total = total;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public Map<String, Map<String, Long>> getFacets() {
+        return facets;
+    }
 
+    public void setFacets(Map<String, Map<String, Long>> facets) {
+        this.facets = facets;
+    }
 }
@@ -0,0 +1,7 @@
+package com.avinash.HotfixService.Model;
+
+import java.util.List;
+
+public class SupersedingHFMetadata extends Metadata<Integer, List<String>> {
+
+}
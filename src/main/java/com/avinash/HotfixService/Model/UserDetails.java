@@ -1,5 +1,6 @@
 package com.avinash.HotfixService.Model;
 
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Date;
@@ -7,6 +8,8 @@ import java.util.List;
 
 
 @Document("UserDetails")
+//findByHostname filters on hostname and returns the latest requests first.
+@CompoundIndex(name = "hostname_date", def = "{'hostname': 1, 'date': -1}")
 public class UserDetails {
     private Date date;
     private String requestPath;
@@ -0,0 +1,119 @@
+/**
+ * Everything the read endpoints serve from memory for one load of the hotfix data: the
+ * distinct catalogs, the database summary, the record count, the search index, the
+ * supersession graph and the ready serialised catalog and summary responses.
+ * A generation is immutable; a refresh builds a new one and publishes it as a whole
+ * through DataGenerationHolder, so a request never sees parts of two loads.
+ *
+ * @author Avinash Tingre
+ */
+package com.avinash.HotfixService.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+public final class DataGeneration {
+
+    private static final byte[] EMPTY_LIST_JSON = "[]".getBytes(StandardCharsets.UTF_8);
+
+    //Before the first refresh: no catalogs, no indexes.
+    static final DataGeneration NONE = new DataGeneration(0, null, Collections.emptyList(),
+            Collections.emptyList(), 0, null, null, EMPTY_LIST_JSON, EMPTY_LIST_JSON, null);
+
+    private final long number;
+    private final Date loadedAt;
+    private final List<String> distinctVersions;
+    private final List<String> distinctModules;
+    private final long totalHotfixes;
+    private final ECPSearchIndex searchIndex;
+    private final SupersessionGraph supersessionGraph;
+    private final byte[] distinctVersionsJson;
+    private final byte[] distinctModulesJson;
+    private final byte[] summaryJson;
+
+    DataGeneration(long number, Date loadedAt, List<String> distinctVersions, List<String> distinctModules,
+                   long totalHotfixes, ECPSearchIndex searchIndex, SupersessionGraph supersessionGraph,
+                   byte[] distinctVersionsJson, byte[] distinctModulesJson, byte[] summaryJson) {
+        this.number = number;
+        this.loadedAt = loadedAt;
+        this.distinctVersions = distinctVersions;
+        this.distinctModules = distinctModules;
+        this.totalHotfixes = totalHotfixes;
+        this.searchIndex = searchIndex;
+        this.supersessionGraph = supersessionGraph;
+        this.distinctVersionsJson = distinctVersionsJson;
+        this.distinctModulesJson = distinctModulesJson;
+        this.summaryJson = summaryJson;
+    }
+
+    /**
+     * Sequence number of the load, 0 before the first refresh.
+     */
+    public long getNumber() {
+        return number;
+    }
+
+    public boolean isLoaded() {
+        return number > 0;
+    }
+
+    public Date getLoadedAt() {
+        return loadedAt == null ? null : new Date(loadedAt.getTime());
+    }
+
+    /**
+     * Sorted, unmodifiable list of all cramerVersion values.
+     */
+    public List<String> getDistinctVersions() {
+        return distinctVersions;
+    }
+
+    /**
+     * Sorted, unmodifiable list of all module values.
+     */
+    public List<String> getDistinctModules() {
+        return distinctModules;
+    }
+
+    public long getTotalHotfixes() {
+        return totalHotfixes;
+    }
+
+    /**
+     * JSON of getDistinctVersions(). Shared by all requests and must not be modified.
+     */
+    public byte[] getDistinctVersionsJson() {
+        return distinctVersionsJson;
+    }
+
+    /**
+     * JSON of getDistinctModules(). Shared by all requests and must not be modified.
+     */
+    public byte[] getDistinctModulesJson() {
+        return distinctModulesJson;
+    }
+
+    /**
+     * JSON of the latest database summary, or null if none has been saved. Shared by all
+     * requests and must not be modified.
+     */
+    public byte[] getSummaryJson() {
+        return summaryJson;
+    }
+
+    /**
+     * The in-memory search index, or null if in-memory search is disabled.
+     */
+    ECPSearchIndex getSearchIndex() {
+        return searchIndex;
+    }
+
+    /**
+     * The supersession graph, or null before the first refresh.
+     */
+    SupersessionGraph getSupersessionGraph() {
+        return supersessionGraph;
+    }
+}
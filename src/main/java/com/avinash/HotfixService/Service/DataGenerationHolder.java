@@ -0,0 +1,29 @@
+/**
+ * Holds the current data generation. Readers take one reference and use only that
+ * generation for the whole request, without locking; a refresh replaces it in one write.
+ *
+ * @author Avinash Tingre
+ */
+package com.avinash.HotfixService.Service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+@Component
+public class DataGenerationHolder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DataGenerationHolder.class);
+
+    private volatile DataGeneration current = DataGeneration.NONE;
+
+    public DataGeneration current() {
+        return current;
+    }
+
+    void publish(DataGeneration generation) {
+        current = generation;
+        LOG.info("Data generation " + generation.getNumber() + " published with "
+                + generation.getTotalHotfixes() + " hotfixes.");
+    }
+}
@@ -0,0 +1,17 @@
+/**
+ * Thrown when a request needs data that is only held in memory and the first data generation
+ * has not been published yet. The controllers report it as service unavailable, so clients
+ * retry once the startup refresh is done.
+ *
+ * @author Avinash Tingre
+ */
+package com.avinash.HotfixService.Service;
+
+public class DataNotLoadedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DataNotLoadedException(String message) {
+        super(message);
+    }
+}
@@ -8,8 +8,12 @@ package com.avinash.HotfixService.Service;
 import com.avinash.HotfixService.Model.ECPLog;
 import com.avinash.HotfixService.Model.HotfixSummary;
 import com.monitorjbl.xlsx.StreamingReader;
-import com.monitorjbl.xlsx.impl.StreamingCell;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTWorkbookPr;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.WorkbookDocument;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,23 +21,31 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.*;
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.ArrayList;
-import java.util.Date;
-import java.util.LinkedHashMap;
-import java.util.List;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+import java.util.zip.CRC32;
 
 @Service
 public class ECPFileHandler {
 
     private static final Logger LOG = LoggerFactory.getLogger(ECPFileHandler.class);
+    public static final String INGEST_MODE_INCREMENTAL = "incremental";
+    //Returned by mergeExcelDataToDB when the excel file is unchanged since the last load.
+    public static final long SKIPPED = -1;
     private static final List<ECPLog> ecp_list = new ArrayList<ECPLog>();
-    private static List<String> row_values = new ArrayList<String>();
-    private static final List<String> result = new ArrayList<String>();
-    private static final LinkedHashMap<String, Integer> COLUMN_INDEX = new LinkedHashMap<>();
-    private static int ColumnCount;
+    //End-of-data markers passed through the ingest queues.
+    private static final RowSnapshot END_OF_SHEET = new RowSnapshot(-1, null, null);
+    private static final ECPLog END_OF_ROWS = new ECPLog();
 
     @Autowired
     private ECPLogService ecpService;
@@ -49,274 +61,458 @@ public class ECPFileHandler {
     @Value("${app.sheet_name}")
     private String sheetname;
 
+    @Value("${app.ingest.batchSize:1000}")
+    private int batchSize;
 
-    private static synchronized List<String> getListFromRow(Row row) throws NullPointerException {
-        result.clear();
+    @Value("${app.ingest.flushIntervalMs:2000}")
+    private long flushIntervalMs;
 
-        for (int i = 0; i < ColumnCount; i++) {
-            Cell c = row.getCell(i);
+    @Value("${app.ingest.mode:full}")
+    private String ingestMode;
 
-            if (c == null) {
-                c = new StreamingCell(i, row.getRowNum(), true);
-            }
+    @Value("${app.ingest.converterThreads:4}")
+    private int converterThreads;
 
-            if (c.getColumnIndex() == COLUMN_INDEX.get(ECPLogConstants.requestDate)
-                    || c.getColumnIndex() == COLUMN_INDEX.get(ECPLogConstants.targetDate)
-                    || c.getColumnIndex() == COLUMN_INDEX.get(ECPLogConstants.releasedDate)) {
-                DateFormat df = new SimpleDateFormat("dd-MMM-yyyy");
-                if (c.getCellType() == CellType.NUMERIC && c.getDateCellValue() != null) {
-                    String date = df.format(c.getDateCellValue());
-                    result.add(date);
-                } else if (c.getCellType() == CellType.STRING && !c.getStringCellValue().equals("")) {
-                    result.add(c.getStringCellValue());
-                } else {
-                    result.add("-");
-                }
-                continue;
-            }
+    @Value("${app.ingest.queueCapacity:1000}")
+    private int queueCapacity;
 
-            if (c.getCellType() == CellType.NUMERIC) {
-                int val = (int) c.getNumericCellValue();
-                result.add(String.valueOf(val));
+    private long lastFlush;
 
-            } else if (c.getCellType() == CellType.STRING && !c.getStringCellValue().equals("")) {
-                result.add(c.getStringCellValue());
-
-            } else {
-                result.add("-");
-            }
 
+    /**
+     * Merge the excel file into DB, unless size, modification time and checksum of the file
+     * and the ingest settings match the ones recorded in the last summary.
+     *
+     * @return number of rows read from the sheet, or SKIPPED if the file is unchanged.
+     */
+    public synchronized long mergeExcelDataToDB() throws Exception {
+        SourceFile source = SourceFile.of(Paths.get(excelFilePath), ingestSettings());
+        HotfixSummary lastSummary = dbhistoryService.getSummary();
+        if (source.matches(lastSummary) && ecpService.countAllHotfixes() == lastSummary.getTotalHotfixes()) {
+            LOG.info("Excel file unchanged since " + lastSummary.getDatabaseCreatedAt() + ", refresh skipped.");
+            return SKIPPED;
         }
 
-        while (result.size() < ColumnCount) {
-            result.add("-");
+        if (INGEST_MODE_INCREMENTAL.equalsIgnoreCase(ingestMode)) {
+            return mergeIncremental(source);
         }
-        return result;
-
-    }
-
-    private static synchronized String getValue(String key) {
-        return row_values.get(COLUMN_INDEX.get(key));
+        return mergeFull(source);
     }
 
-    @SuppressWarnings("deprecation")
-    private static synchronized ECPLog createObjectFromlist(long count) throws NullPointerException {
-        ECPLog ecp_object = new ECPLog();
-        ecp_object.set_id(count + 1);
-
-        ecp_object.setCramerVersion(getValue(ECPLogConstants.cramerVersion));
-        ecp_object.setIsPreRequisite(getValue(ECPLogConstants.isPreRequisite));
-        ecp_object.setPrereqForLatestEcp(getValue(ECPLogConstants.prereqForLatestEcp));
-        ecp_object.setLatestEcp(getValue(ECPLogConstants.latestEcp));
-        ecp_object.setEcpNo(getValue(ECPLogConstants.ecpNo));
-        if ((getValue(ECPLogConstants.latestEcp)).equalsIgnoreCase(getValue(ECPLogConstants.ecpNo))) {
-            ecp_object.setIsThisLatestHF("TRUE");
-        } else {
-            ecp_object.setIsThisLatestHF("FALSE");
-        }
-        ecp_object.setSequence(getValue(ECPLogConstants.sequence));
-        ecp_object.setOrNo(getValue(ECPLogConstants.orNo));
-        ecp_object.setDescription(getValue(ECPLogConstants.description));
-        ecp_object.setStatus(getValue(ECPLogConstants.status));
-        ecp_object.setFixedBy(getValue(ECPLogConstants.fixedBy));
-        ecp_object.setModule(getValue(ECPLogConstants.module));
-        ecp_object.setVersion(getValue(ECPLogConstants.version));
-        ecp_object.setCaseOrCrNo(getValue(ECPLogConstants.caseOrCrNo));
-        ecp_object.setRequestor(getValue(ECPLogConstants.requestor));
-        ecp_object.setFilesModifiedInPerforce(getValue(ECPLogConstants.filesModifiedInPerforce));
-        ecp_object.setFileLocationInPerforce(getValue(ECPLogConstants.fileLocationInPerforce));
-        ecp_object.setFilesReleasedToCustomer(getValue(ECPLogConstants.filesReleasedToCustomer));
-        ecp_object.setType(getValue(ECPLogConstants.type));
-        ecp_object.setNotes(getValue(ECPLogConstants.notes));
-        ecp_object.setDownloadCenter(getValue(ECPLogConstants.downloadCenter));
-        ecp_object.setEcpReplaced(getValue(ECPLogConstants.ecpReplaced));
-        ecp_object.setAdditionalInfo(getValue(ECPLogConstants.additionalInfo));
-        ecp_object.setFixRolledIntoModule(getValue(ECPLogConstants.fixRolledIntoModule));
-        ecp_object.setRolledIntoVersion(getValue(ECPLogConstants.rolledIntoVersion));
-        ecp_object.setRollupCr(getValue(ECPLogConstants.rollupCr));
-        ecp_object.setEscapingDefect(getValue(ECPLogConstants.escapingDefect));
-        ecp_object.setReportingVersion(getValue(ECPLogConstants.reportingVersion));
-        ecp_object.setOriginalIssue(getValue(ECPLogConstants.originalIssue));
-        ecp_object.setAddedToExtranet(getValue(ECPLogConstants.addedToExtranet));
-        ecp_object.setAddedToExtranetUpdate(getValue(ECPLogConstants.addedToExtranetUpdate));
-        ecp_object.setAddedToPatchBundle(getValue(ECPLogConstants.addedToPatchBundle));
-        ecp_object.setHfNotBuiltSep(getValue(ECPLogConstants.hfNotBuiltSep));
-        ecp_object.setC4IssueAlso(getValue(ECPLogConstants.c4IssueAlso));
-        ecp_object.setC5IssueAlso(getValue(ECPLogConstants.c5IssueAlso));
-        ecp_object.setMissingBasicFunc(getValue(ECPLogConstants.missingBasicFunc));
-        ecp_object.setNewComponent(getValue(ECPLogConstants.newComponent));
-        ecp_object.setCausedByNewComp(getValue(ECPLogConstants.causedByNewComp));
-        ecp_object.setPlatformIssue(getValue(ECPLogConstants.platformIssue));
-        ecp_object.setPerfIssue(getValue(ECPLogConstants.perfIssue));
-        ecp_object.setUpgradeIssue(getValue(ECPLogConstants.upgradeIssue));
-        ecp_object.setNewFuncAdded(getValue(ECPLogConstants.newFuncAdded));
-        ecp_object.setMandatoryEcp(getValue(ECPLogConstants.mandatoryEcp));
-        ecp_object.setSpecificFunc(getValue(ECPLogConstants.specificFunc));
-        ecp_object.setMultiModulesAffected(getValue(ECPLogConstants.multiModulesAffected));
-        ecp_object.setSeverity(getValue(ECPLogConstants.severity));
-        ecp_object.setPriority(getValue(ECPLogConstants.priority));
-        ecp_object.setEcpFaulty(getValue(ECPLogConstants.ecpFaulty));
-        ecp_object.setHfRolllupInfo(getValue(ECPLogConstants.hfRolllupInfo));
-
-        SimpleDateFormat df = new SimpleDateFormat("dd-MMM-yyyy");
-
-
+    /**
+     * Load every row into the staging collection and swap it over the live one.
+     */
+    private long mergeFull(SourceFile source) throws Exception {
+        long total_records;
+        long oldRecords = previousTotalHotfixes();
         try {
-            ecp_object.setRequestDate(df.parse(getValue(ECPLogConstants.requestDate)));
-        } catch (ParseException e) {
-            ecp_object.setRequestDate(new Date(0, 0, 0));
-        }
-        try {
-            ecp_object.setTargetDate(df.parse(getValue(ECPLogConstants.targetDate)));
-        } catch (ParseException e) {
-            ecp_object.setTargetDate(new Date(0, 0, 0));
+            ecpService.prepareStaging();
+            lastFlush = System.currentTimeMillis();
+            total_records = readSheet(ecplog -> addToBatch(ecplog, ecpService::insertIntoStaging));
+            flushBatch(ecpService::insertIntoStaging);
+            ecpService.promoteStaging();
+        } catch (Exception ex) {
+            //Keep serving the previous generation; only the staging copy is discarded.
+            ecpService.dropStaging();
+            LOG.warn("Data loading failed, old records are kept.");
+            throw ex;
+        } finally {
+            ecp_list.clear();
         }
+        saveSummaryInDB(ecpService.countAllHotfixes() - oldRecords, source);
+        return total_records;
+    }
+
+    /**
+     * Compare the content hash of every row with the one stored for the same row identity and
+     * only upsert new or changed rows. Hotfixes which are no longer in the sheet are deleted.
+     */
+    private long mergeIncremental(SourceFile source) throws Exception {
+        IncrementalMerge merge = new IncrementalMerge(ecpService.findContentHashes(), ecpService.findMaxId(),
+                ecplog -> addToBatch(ecplog, ecpService::upsertById));
+        long total_records;
         try {
-            ecp_object.setReleasedDate(df.parse(getValue(ECPLogConstants.releasedDate)));
-        } catch (ParseException e) {
-            ecp_object.setReleasedDate(new Date(0, 0, 0));
+            lastFlush = System.currentTimeMillis();
+            total_records = readSheet(merge);
+            flushBatch(ecpService::upsertById);
+        } finally {
+            ecp_list.clear();
         }
-        return ecp_object;
+        List<Long> removedIds = merge.removedIds();
+        long removed = removedIds.isEmpty() ? 0 : ecpService.removeByIds(removedIds);
+
+        LOG.info("Incremental load: " + merge.inserted + " new, " + merge.changed + " changed, "
+                + merge.unchanged + " unchanged, " + removed + " removed.");
+        saveSummaryInDB(merge.inserted, source);
+        return total_records;
     }
 
-    public synchronized void initializeColumnIndexes(Row headRow) {
-        ColumnCount = headRow.getLastCellNum();
-        for (int colIndex = 0; colIndex < ColumnCount; colIndex++) {
-            String headerName;
-            try {
-                headerName = headRow.getCell(colIndex).getStringCellValue();
-            } catch (NullPointerException ex) {
-                headerName = "xxx";
+    /**
+     * Stream the sheet once and hand every data row, converted to ECPLog, to the given consumer
+     * in sheet order. Reading stops at the "eof" marker row.
+     * <p>
+     * One thread reads the workbook and queues row snapshots, converterThreads threads turn them
+     * into ECPLog objects and the calling thread passes the results on to the consumer, so
+     * XML parsing, conversion and DB writes overlap.
+     */
+    private long readSheet(Consumer<ECPLog> consumer) throws Exception {
+        int workers = Math.max(1, converterThreads);
+        BlockingQueue<RowSnapshot> rawRows = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<ECPLog> converted = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(workers + 1, runnable -> {
+            Thread t = new Thread(runnable, "ecp-ingest-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        LOG.info("Data loading started: " + new Date());
+        long startTime = System.nanoTime();
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            Future<Long> reader = pool.submit(() -> readRows(rawRows, workers));
+            tasks.add(reader);
+            for (int i = 0; i < workers; i++) {
+                tasks.add(pool.submit(() -> convertRows(rawRows, converted)));
             }
 
-            COLUMN_INDEX.put(headerName, colIndex);
+            writeRows(converted, workers, consumer, tasks);
+            long total_records = getResult(reader);
+
+            LOG.info("Data loading finished: " + new Date());
+            logThroughput(total_records, System.nanoTime() - startTime);
+            return total_records;
+        } finally {
+            pool.shutdownNow();
         }
     }
 
-    public synchronized long mergeExcelDataToDB() throws Exception {
+    /**
+     * Reader stage: snapshot every data row of the sheet into rawRows.
+     */
+    private long readRows(BlockingQueue<RowSnapshot> rawRows, int workers) throws Exception {
         long total_records = 0;
-        InputStream fis = null;
-        Workbook workbook = null;
-        Sheet sheet;
-        try {
+        File file = new File(excelFilePath);
+        boolean date1904 = usesDate1904(file);
 
-            int startRow = headerRowNum;
+        try (InputStream fis = new FileInputStream(file);
+             Workbook workbook = StreamingReader.builder().rowCacheSize(100).bufferSize(4096).open(fis)) {
 
-            int endRow = getLastRowNum();
-            ecpService.deleteAll();
-            LOG.info("Old records Deleted.");
-            File file = new File(excelFilePath);
-            fis = new FileInputStream(file);
-
-            workbook = StreamingReader.builder().rowCacheSize(100).bufferSize(4096).open(fis);
-
-            sheet = workbook.getSheet(sheetname);
-            LOG.info("Data loading started: " + new Date());
+            Sheet sheet = workbook.getSheet(sheetname);
+            ECPRowConverter converter = null;
 
             for (Row r : sheet) {
                 if (r.getRowNum() == headerRowNum) {
-                    initializeColumnIndexes(r);
+                    converter = new ECPRowConverter(r, date1904);
                 }
 
-                if (r.getRowNum() > startRow && r.getRowNum() < endRow) {
-                    ECPLog ecplog = new ECPLog();
-
-                    try {
-                        row_values = getListFromRow(r);
-                        ecplog = createObjectFromlist(total_records);
-                    } catch (NullPointerException ex) {
-                        Exception ex1 = new NullPointerException("Column names are incorrectly defined. Check the values defined in ECPLogConstants class.\n");
-                        ex1.setStackTrace(ex.getStackTrace());
-                        throw ex1;
+                if (r.getRowNum() > headerRowNum) {
+                    if (isEndOfData(r)) {
+                        break;
                     }
-
-                    ecpService.save(ecplog);
+                    rawRows.put(new RowSnapshot(total_records, converter, converter.snapshot(r)));
                     total_records++;
-                    row_values.clear();
                 }
             }
-            LOG.info("Data loading finished: " + new Date());
-            saveSummaryInDB();
-        } catch (FileNotFoundException ex) {
-            throw ex;
-        } finally {
-            if (workbook != null) {
-                workbook.close();
+        }
+        for (int i = 0; i < workers; i++) {
+            rawRows.put(END_OF_SHEET);
+        }
+        return total_records;
+    }
+
+    /**
+     * Converter stage: build ECPLog objects from row snapshots.
+     */
+    private Void convertRows(BlockingQueue<RowSnapshot> rawRows, BlockingQueue<ECPLog> converted) throws InterruptedException {
+        while (true) {
+            RowSnapshot row = rawRows.take();
+            if (row == END_OF_SHEET) {
+                converted.put(END_OF_ROWS);
+                return null;
             }
+            ECPLog ecplog = row.converter.convert(row.values, row.index);
+            ecplog.setContentHash(contentHash(ecplog));
+            converted.put(ecplog);
+        }
+    }
 
-            if (fis != null) {
-                fis.close();
+    /**
+     * Writer stage: restore sheet order (ids are assigned from the row position) and pass
+     * every ECPLog to the consumer. Fails as soon as the reader or a converter fails.
+     */
+    private void writeRows(BlockingQueue<ECPLog> converted, int workers, Consumer<ECPLog> consumer,
+                           List<Future<?>> tasks) throws Exception {
+        PriorityQueue<ECPLog> pending = new PriorityQueue<>(Comparator.comparingLong(ECPLog::get_id));
+        long nextId = 1;
+        int finishedWorkers = 0;
+
+        while (finishedWorkers < workers) {
+            ECPLog ecplog = converted.poll(100, TimeUnit.MILLISECONDS);
+            if (ecplog == null) {
+                for (Future<?> task : tasks) {
+                    if (task.isDone()) {
+                        getResult(task);
+                    }
+                }
+            } else if (ecplog == END_OF_ROWS) {
+                finishedWorkers++;
+            } else {
+                pending.add(ecplog);
+                while (!pending.isEmpty() && pending.peek().get_id() == nextId) {
+                    consumer.accept(pending.poll());
+                    nextId++;
+                }
             }
-            ecp_list.clear();
         }
-        return total_records;
     }
 
-    private synchronized void saveSummaryInDB() {
+    private static <T> T getResult(Future<T> task) throws Exception {
+        try {
+            return task.get();
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * True if the workbook counts date serial numbers from 1904 instead of 1900. Only the
+     * workbook part of the file is read.
+     */
+    static boolean usesDate1904(File file) throws Exception {
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ);
+             InputStream in = new XSSFReader(pkg).getWorkbookData()) {
+            CTWorkbookPr workbookPr = WorkbookDocument.Factory.parse(in).getWorkbook().getWorkbookPr();
+            return workbookPr != null && workbookPr.getDate1904();
+        }
+    }
+
+    /**
+     * The data rows end with an "eof" marker in column 1 of the sheet.
+     */
+    static boolean isEndOfData(Row r) {
+        Cell c = r.getCell(1);
+        return c != null && c.getCellType() == CellType.STRING && c.getStringCellValue().equals("eof");
+    }
 
-        long oldRecords = 0;
-        if (dbhistoryService.getSummary() != null) {
-            HotfixSummary oldSummary = dbhistoryService.getSummary();
-            oldRecords = oldSummary.getTotalHotfixes();
+    /**
+     * Hash of all parsed hotfix fields except _id, used to detect changed rows between refreshes.
+     */
+    static String contentHash(ECPLog e) {
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
         }
+        String[] values = {e.getCramerVersion(), e.getIsPreRequisite(), e.getPrereqForLatestEcp(), e.getEcpNo(),
+                e.getLatestEcp(), e.getIsThisLatestHF(), e.getSequence(), e.getOrNo(), e.getDescription(),
+                e.getStatus(), e.getRequestor(), e.getFixedBy(), dateKey(e.getRequestDate()),
+                dateKey(e.getTargetDate()), dateKey(e.getReleasedDate()), e.getModule(), e.getVersion(),
+                e.getCaseOrCrNo(), e.getFilesModifiedInPerforce(), e.getFileLocationInPerforce(),
+                e.getFilesReleasedToCustomer(), e.getType(), e.getNotes(), e.getDownloadCenter(), e.getEcpReplaced(),
+                e.getAdditionalInfo(), e.getFixRolledIntoModule(), e.getRolledIntoVersion(), e.getRollupCr(),
+                e.getEscapingDefect(), e.getReportingVersion(), e.getOriginalIssue(), e.getAddedToExtranet(),
+                e.getAddedToExtranetUpdate(), e.getAddedToPatchBundle(), e.getHfNotBuiltSep(), e.getC4IssueAlso(),
+                e.getC5IssueAlso(), e.getMissingBasicFunc(), e.getNewComponent(), e.getCausedByNewComp(),
+                e.getPlatformIssue(), e.getPerfIssue(), e.getUpgradeIssue(), e.getNewFuncAdded(), e.getMandatoryEcp(),
+                e.getSpecificFunc(), e.getMultiModulesAffected(), e.getSeverity(), e.getPriority(), e.getEcpFaulty(),
+                e.getHfRolllupInfo()};
+        for (String value : values) {
+            if (value != null) {
+                md.update(value.getBytes(StandardCharsets.UTF_8));
+            }
+            md.update((byte) 0);
+        }
+        return new BigInteger(1, md.digest()).toString(16);
+    }
 
+    private static String dateKey(Date date) {
+        return date == null ? null : String.valueOf(date.getTime());
+    }
+
+    private void addToBatch(ECPLog ecplog, ToIntFunction<List<ECPLog>> writer) {
+        ecp_list.add(ecplog);
+        if (ecp_list.size() >= batchSize || System.currentTimeMillis() - lastFlush >= flushIntervalMs) {
+            flushBatch(writer);
+        }
+    }
+
+    /**
+     * Write the buffered rows to DB with a single unordered bulk write.
+     */
+    private void flushBatch(ToIntFunction<List<ECPLog>> writer) {
+        if (!ecp_list.isEmpty()) {
+            int written = writer.applyAsInt(ecp_list);
+            LOG.debug("Flushed batch of " + written + " records.");
+            ecp_list.clear();
+        }
+        lastFlush = System.currentTimeMillis();
+    }
+
+    private void logThroughput(long total_records, long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        long rowsPerSec = seconds > 0 ? (long) (total_records / seconds) : total_records;
+        LOG.info("Loaded " + total_records + " records in " + String.format("%.2f", seconds) + " sec ("
+                + rowsPerSec + " rows/sec, batchSize=" + batchSize + ", flushIntervalMs=" + flushIntervalMs + ")");
+    }
+
+    /**
+     * Settings which change what is loaded from an unchanged file.
+     */
+    private String ingestSettings() {
+        return "mode=" + ingestMode.toLowerCase(Locale.ROOT) + ";sheet=" + sheetname + ";headerRowNum=" + headerRowNum;
+    }
+
+    private long previousTotalHotfixes() {
+        HotfixSummary oldSummary = dbhistoryService.getSummary();
+        return oldSummary == null ? 0 : oldSummary.getTotalHotfixes();
+    }
 
+    private synchronized void saveSummaryInDB(long newlyAddedHotfixes, SourceFile source) {
         HotfixSummary summary = new HotfixSummary();
         summary.setDatabaseCreatedAt(new Date());
-        summary.setNewlyAddedHotfixes(ecpService.countAllHotfixes() - oldRecords);
+        summary.setNewlyAddedHotfixes(newlyAddedHotfixes);
         summary.setTotalHotfixes(ecpService.countAllHotfixes());
+        summary.setSourceFileSize(source.size);
+        summary.setSourceFileModifiedAt(source.modifiedAt);
+        summary.setSourceFileChecksum(source.checksum());
+        summary.setIngestSettings(source.ingestSettings);
         dbhistoryService.addSummary(summary);
         LOG.info("Summary updated in DB !");
 
     }
 
-    private synchronized int getLastRowNum() throws IOException {
-        int last_num = 0;
-        boolean flag = true;
-        int start_row = headerRowNum;
-        InputStream fis = null;
-        Workbook workbook = null;
-        Sheet sheet;
-        try {
-            File file = new File(excelFilePath);
-            fis = new FileInputStream(file);
-            workbook = StreamingReader.builder().rowCacheSize(100).bufferSize(4096).open(fis);
-            sheet = workbook.getSheet(sheetname);
-
+    /**
+     * Row consumer for the incremental mode. A row is identified by its ecpNo and by how many
+     * rows with the same ecpNo come before it in the sheet, so repeated and blank ("-") ecpNo
+     * rows are all kept, exactly like in the full mode. The n-th such row is matched with the
+     * n-th stored hotfix with that ecpNo in _id order. Stored hotfixes left unmatched after
+     * the sheet has been read are the ones removed from the sheet.
+     */
+    static final class IncrementalMerge implements Consumer<ECPLog> {
+        private final Map<String, List<ECPLog>> existing;
+        private final Map<String, Integer> occurrences = new HashMap<>();
+        private final Consumer<ECPLog> writer;
+        private long nextId;
+        long inserted;
+        long changed;
+        long unchanged;
+
+        /**
+         * @param existing stored hotfixes per ecpNo, each list sorted on _id
+         * @param maxId    highest stored _id; new rows get ids after it
+         * @param writer   receives every new or changed row
+         */
+        IncrementalMerge(Map<String, List<ECPLog>> existing, long maxId, Consumer<ECPLog> writer) {
+            this.existing = existing;
+            this.nextId = maxId + 1;
+            this.writer = writer;
+        }
 
-            for (Row r : sheet) {
+        @Override
+        public void accept(ECPLog ecplog) {
+            int occurrence = occurrences.merge(ecplog.getEcpNo(), 1, Integer::sum) - 1;
+            List<ECPLog> stored = existing.getOrDefault(ecplog.getEcpNo(), Collections.emptyList());
+            ECPLog old = occurrence < stored.size() ? stored.set(occurrence, null) : null;
+            if (old == null) {
+                ecplog.set_id(nextId++);
+                inserted++;
+            } else if (ecplog.getContentHash().equals(old.getContentHash())) {
+                unchanged++;
+                return;
+            } else {
+                ecplog.set_id(old.get_id());
+                changed++;
+            }
+            writer.accept(ecplog);
+        }
 
-                if (r.getRowNum() >= start_row) {
-                    for (Cell c : r) {
-                        if (c.getColumnIndex() == 1) {
-                            last_num++;
-                            if (c.getCellType() == CellType.STRING) {
-
-                                if (c.getStringCellValue().equals("eof")) {
-                                    flag = false;
-                                    break;
-                                }
-                            }
-                        }
+        /**
+         * Ids of stored hotfixes which no sheet row was matched with.
+         */
+        List<Long> removedIds() {
+            List<Long> ids = new ArrayList<>();
+            for (List<ECPLog> stored : existing.values()) {
+                for (ECPLog old : stored) {
+                    if (old != null) {
+                        ids.add(old.get_id());
                     }
-                    if (!flag) {
-                        break;
-                    }
-
                 }
             }
+            return ids;
+        }
+    }
 
-        } catch (FileNotFoundException ex) {
-            throw ex;
-        } finally {
-            if (workbook != null) {
-                workbook.close();
-            }
-            if (fis != null) {
-                fis.close();
+    /**
+     * Size, modification time and CRC32 checksum of the excel file, with the ingest settings
+     * it is loaded with. The checksum is only computed when it is needed.
+     */
+    private static final class SourceFile {
+        private final Path path;
+        private final long size;
+        private final Date modifiedAt;
+        private final String ingestSettings;
+        private String checksum;
+
+        private SourceFile(Path path, long size, Date modifiedAt, String ingestSettings) {
+            this.path = path;
+            this.size = size;
+            this.modifiedAt = modifiedAt;
+            this.ingestSettings = ingestSettings;
+        }
+
+        static SourceFile of(Path path, String ingestSettings) throws IOException {
+            return new SourceFile(path, Files.size(path), new Date(Files.getLastModifiedTime(path).toMillis()),
+                    ingestSettings);
+        }
+
+        String checksum() {
+            if (checksum == null) {
+                CRC32 crc = new CRC32();
+                byte[] buffer = new byte[64 * 1024];
+                try (InputStream in = Files.newInputStream(path)) {
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        crc.update(buffer, 0, read);
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                checksum = Long.toHexString(crc.getValue());
             }
+            return checksum;
+        }
+
+        /**
+         * Cheap checks first; the file is only read for the checksum if all of them match.
+         */
+        boolean matches(HotfixSummary summary) {
+            return summary != null
+                    && summary.getSourceFileSize() == size
+                    && modifiedAt.equals(summary.getSourceFileModifiedAt())
+                    && ingestSettings.equals(summary.getIngestSettings())
+                    && checksum().equals(summary.getSourceFileChecksum());
+        }
+    }
+
+    /**
+     * Cell values of one data row, copied on the reader thread.
+     */
+    private static final class RowSnapshot {
+        private final long index;
+        private final ECPRowConverter converter;
+        private final ECPRowConverter.RowValues values;
+
+        RowSnapshot(long index, ECPRowConverter converter, ECPRowConverter.RowValues values) {
+            this.index = index;
+            this.converter = converter;
+            this.values = values;
         }
-        return last_num + headerRowNum - 1;
     }
 
 }
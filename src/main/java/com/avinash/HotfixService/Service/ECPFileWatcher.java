@@ -0,0 +1,99 @@
+/**
+ * This class watches the directory of the Excel file and triggers a refresh once the file
+ * has been saved and left unchanged for the configured quiet period.
+ *
+ * @author Avinash Tingre
+ */
+package com.avinash.HotfixService.Service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class ECPFileWatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ECPFileWatcher.class);
+
+    @Value("${app.excelFilePath}")
+    private String excelFilePath;
+
+    @Value("${app.watch.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.watch.quietPeriodMs:5000}")
+    private long quietPeriodMs;
+
+    private volatile boolean running;
+    private WatchService watchService;
+
+    /**
+     * Start watching the Excel file in a background thread, if enabled in application.yml.
+     * onChange is called from that thread after each burst of writes has settled.
+     */
+    public synchronized void start(Runnable onChange) throws IOException {
+        if (!enabled || running) {
+            return;
+        }
+        Path file = Paths.get(excelFilePath).toAbsolutePath();
+        Path dir = file.getParent();
+        watchService = dir.getFileSystem().newWatchService();
+        dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        running = true;
+
+        Thread thread = new Thread(() -> watch(file.getFileName(), onChange), "excel-file-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        LOG.info("Watching " + file + " for changes (quiet period " + quietPeriodMs + " ms).");
+    }
+
+    private void watch(Path fileName, Runnable onChange) {
+        //Time of the last event for our file which has not been acted on yet, 0 if none.
+        long lastEventAt = 0;
+        try {
+            while (running) {
+                WatchKey key;
+                if (lastEventAt == 0) {
+                    key = watchService.take();
+                } else {
+                    long remaining = quietPeriodMs - (System.currentTimeMillis() - lastEventAt);
+                    key = watchService.poll(Math.max(remaining, 0), TimeUnit.MILLISECONDS);
+                }
+
+                if (key != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(event.context())) {
+                            lastEventAt = System.currentTimeMillis();
+                        }
+                    }
+                    if (!key.reset()) {
+                        LOG.warn("Excel file directory is no longer accessible, file watch stopped.");
+                        return;
+                    }
+                }
+
+                if (lastEventAt != 0 && System.currentTimeMillis() - lastEventAt >= quietPeriodMs) {
+                    lastEventAt = 0;
+                    LOG.info("Excel file changed, refreshing database.");
+                    onChange.run();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ex) {
+            LOG.info("Excel file watch stopped.");
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws IOException {
+        running = false;
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+}
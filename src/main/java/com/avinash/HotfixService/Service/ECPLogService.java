@@ -6,24 +6,50 @@
 package com.avinash.HotfixService.Service;
 
 import com.avinash.HotfixService.Model.ECPLog;
+import com.avinash.HotfixService.Model.HotfixSummary;
+import com.avinash.HotfixService.Model.SearchCriteria;
+import com.avinash.HotfixService.Model.SearchPage;
+import com.avinash.HotfixService.Model.SearchResult;
+import com.avinash.HotfixService.Model.UserDetails;
 import com.avinash.HotfixService.Repository.ECPLogRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoNamespace;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.RenameCollectionOptions;
+import org.bson.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.FacetOperation;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
 import org.springframework.stereotype.Component;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.util.*;
+import java.util.function.Consumer;
 
 @Component
 public class ECPLogService {
     private static final Logger LOG = LoggerFactory.getLogger(ECPLogService.class);
+    //New generation of hotfix records is loaded here and renamed over the live collection once complete.
+    public static final String STAGING_COLLECTION = "HotfixDetails_staging";
 
     @Autowired
     ECPLogRepository ecpRepo;
@@ -34,41 +60,393 @@ public class ECPLogService {
     @Autowired
     ObjectMapper objectMapper;
 
+    @Autowired
+    MongoTemplate mongoTemplate;
+
+    @Autowired
+    ECPSearchEngine searchEngine;
+
+    @Autowired
+    SearchResultCache resultCache;
+
+    @Autowired
+    DataGenerationHolder generations;
+
     /**
-     * Get all results from Database with matching parameters.
+     * Get all results from Database with matching parameters, sorted on the given field.
+     * Answered from the result cache or the in-memory search engine when possible. If fields is
+     * not null, only those attributes are read from Database. The returned list must not be modified.
+     * The generation is taken once per request from DataGenerationHolder and passed to every
+     * call of that request, so they all answer from the same load.
      */
-    @SuppressWarnings("unchecked")
-    public List<ECPLog> searchData(String ecpNo, String description, List<String> cramerVersion,
+    public List<ECPLog> searchData(DataGeneration generation, String ecpNo, String description, List<String> cramerVersion,
                                    String latestEcp, String requestor, String fixedBy, List<String> module, String caseOrCrNo,
                                    String filesModifiedInPerforce, String filesReleasedToCustomer, String rolledIntoVersion,
-                                   String specificFunc, int page_no, int page_size) {
-        ecpNo = formatString(ecpNo);
-        description = formatString(description);
-        latestEcp = formatString(latestEcp);
-        requestor = formatString(requestor);
-        fixedBy = formatString(fixedBy);
-        caseOrCrNo = formatString(caseOrCrNo);
-        filesModifiedInPerforce = formatString(filesModifiedInPerforce);
-        filesReleasedToCustomer = formatString(filesReleasedToCustomer);
-        rolledIntoVersion = formatString(rolledIntoVersion);
-        specificFunc = formatString(specificFunc);
+                                   String specificFunc, int page_no, int page_size,
+                                   SortField sort_by, Sort.Direction sort_order, Set<String> fields) {
+        SearchParameters.checkPage(page_no, page_size);
+        SearchCriteria criteria = new SearchCriteria(ecpNo, description, cramerVersion, latestEcp, requestor,
+                fixedBy, module, caseOrCrNo, filesModifiedInPerforce, filesReleasedToCustomer, rolledIntoVersion,
+                specificFunc);
+        List<Object> key = Arrays.asList("searchData", criteria.normalized(), page_no, page_size, sort_by, sort_order,
+                fields);
+        return resultCache.get(generation, key, () -> Collections.unmodifiableList(findData(generation, ecpNo,
+                description, cramerVersion,
+                latestEcp, requestor, fixedBy, module, caseOrCrNo, filesModifiedInPerforce, filesReleasedToCustomer,
+                rolledIntoVersion, specificFunc, page_no, page_size, sort_by, sort_order, fields)), List::size);
+    }
 
+    private List<ECPLog> findData(DataGeneration generation, String ecpNo, String description, List<String> cramerVersion,
+                                   String latestEcp, String requestor, String fixedBy, List<String> module, String caseOrCrNo,
+                                   String filesModifiedInPerforce, String filesReleasedToCustomer, String rolledIntoVersion,
+                                   String specificFunc, int page_no, int page_size,
+                                   SortField sort_by, Sort.Direction sort_order, Set<String> fields) {
         List<ECPLog> result;
 
-        if (page_no == -1 || page_size == -1) {
-            result = ecpRepo.findByOptions(ecpNo, description, cramerVersion,
-                    latestEcp, requestor, fixedBy, module, caseOrCrNo, filesModifiedInPerforce,
-                    filesReleasedToCustomer, rolledIntoVersion, specificFunc);
+        ECPSearchIndex index = generation.getSearchIndex();
+        if (index != null) {
+            SearchCriteria criteria = new SearchCriteria(ecpNo, description, cramerVersion, latestEcp, requestor,
+                    fixedBy, module, caseOrCrNo, filesModifiedInPerforce, filesReleasedToCustomer, rolledIntoVersion,
+                    specificFunc);
+            if (!SearchParameters.isPaged(page_no, page_size)) {
+                result = index.search(criteria, sort_by, sort_order.isAscending(), 0, Integer.MAX_VALUE);
+            } else {
+                PageRequest page = PageRequest.of(page_no, page_size);
+                result = index.search(criteria, sort_by, sort_order.isAscending(), page.getOffset(),
+                        page.getPageSize());
+            }
+            return result;
+        }
+
+        Query query = Query.query(matchCriteria(new SearchCriteria(ecpNo, description, cramerVersion, latestEcp,
+                requestor, fixedBy, module, caseOrCrNo, filesModifiedInPerforce, filesReleasedToCustomer,
+                rolledIntoVersion, specificFunc)));
+        if (!SearchParameters.isPaged(page_no, page_size)) {
+            query.with(sort_by.sort(sort_order));
+        } else {
+            query.with(PageRequest.of(page_no, page_size, sort_by.sort(sort_order)));
+        }
+        return mongoTemplate.find(project(query, fields), ECPLog.class);
+    }
+
+    /***
+     * Get up to page_size matching hotfixes sorted on the given field, starting right after the
+     * cursor, or from the first match if the cursor is null, and the cursor of the next page.
+     * Seeks to the cursor position instead of skipping all earlier records. A cursor issued
+     * before the last refresh is rejected, because _id values may have moved with the data.
+     */
+    public SearchPage searchAfter(DataGeneration generation, String ecpNo, String description, List<String> cramerVersion,
+                                  String latestEcp, String requestor, String fixedBy, List<String> module, String caseOrCrNo,
+                                  String filesModifiedInPerforce, String filesReleasedToCustomer, String rolledIntoVersion,
+                                  String specificFunc, SearchCursor after, int page_size,
+                                  SortField sort_by, Sort.Direction sort_order, Set<String> fields) {
+        if (page_size < 1) {
+            throw new InvalidParameterException("page_size must be given with cursor");
+        }
+        if (after != null && (after.getSortField() != sort_by || after.isAscending() != sort_order.isAscending())) {
+            throw new InvalidParameterException("cursor does not belong to sort_by=" + sort_by.getFieldName()
+                    + " and sort_order=" + sort_order);
+        }
+        if (after != null && after.getGeneration() != generation.getNumber()) {
+            throw new InvalidParameterException("cursor has expired because the hotfix data was refreshed;"
+                    + " restart paging with an empty cursor");
+        }
+        SearchCriteria criteria = new SearchCriteria(ecpNo, description, cramerVersion, latestEcp, requestor,
+                fixedBy, module, caseOrCrNo, filesModifiedInPerforce, filesReleasedToCustomer, rolledIntoVersion,
+                specificFunc);
+
+        //One extra record is fetched to know whether there is a next page.
+        List<ECPLog> ecp_list;
+        ECPSearchIndex index = generation.getSearchIndex();
+        if (index != null) {
+            ecp_list = index.searchAfter(criteria, sort_by, sort_order.isAscending(), after, page_size + 1);
         } else {
-            result = ecpRepo.findByOptionsWithPaging(ecpNo, description, cramerVersion,
-                    latestEcp, requestor, fixedBy, module, caseOrCrNo, filesModifiedInPerforce,
-                    filesReleasedToCustomer, rolledIntoVersion, specificFunc,
-                    PageRequest.of(page_no, page_size));
+            Criteria matching = matchCriteria(criteria);
+            if (after != null) {
+                matching = allOf(Arrays.asList(matching, keysetCriteria(after)));
+            }
+            Query query = Query.query(matching).with(sort_by.sort(sort_order)).limit(page_size + 1);
+            ecp_list = mongoTemplate.find(project(query, fields), ECPLog.class);
+        }
+        if (ecp_list.size() <= page_size) {
+            return new SearchPage(ecp_list, null);
+        }
+        ecp_list = new ArrayList<>(ecp_list.subList(0, page_size));
+        return new SearchPage(ecp_list, SearchCursor.after(ecp_list.get(page_size - 1), sort_by,
+                sort_order.isAscending(), generation.getNumber()).encode());
+    }
+
+    /***
+     * Pass every matching hotfix to the consumer, sorted on the given field, as they are read.
+     * Records are streamed from a MongoDB cursor, so no result list is held in memory.
+     */
+    public void streamData(DataGeneration generation, String ecpNo, String description, List<String> cramerVersion,
+                           String latestEcp, String requestor, String fixedBy, List<String> module, String caseOrCrNo,
+                           String filesModifiedInPerforce, String filesReleasedToCustomer, String rolledIntoVersion,
+                           String specificFunc, SortField sort_by, Sort.Direction sort_order, Consumer<ECPLog> consumer) {
+        SearchCriteria criteria = new SearchCriteria(ecpNo, description, cramerVersion, latestEcp, requestor,
+                fixedBy, module, caseOrCrNo, filesModifiedInPerforce, filesReleasedToCustomer, rolledIntoVersion,
+                specificFunc);
+
+        ECPSearchIndex index = generation.getSearchIndex();
+        if (index != null) {
+            index.forEachMatch(criteria, sort_by, sort_order.isAscending(), consumer);
+            return;
         }
 
+        Query query = Query.query(matchCriteria(criteria)).with(sort_by.sort(sort_order));
+        try (CloseableIterator<ECPLog> ecps = mongoTemplate.stream(query, ECPLog.class)) {
+            ecps.forEachRemaining(consumer);
+        }
+    }
 
-        Collections.sort(result);
-        return result;
+    /***
+     * Get one page of matching hotfixes together with the total number of matching records and,
+     * if requested, the counts per cramerVersion and module, all from a single evaluation.
+     * Without the in-memory search engine this is one $facet aggregation in MongoDB, plus a
+     * find for the records of an unpaged search.
+     */
+    public SearchResult searchWithTotal(DataGeneration generation, String ecpNo, String description, List<String> cramerVersion,
+                                        String latestEcp, String requestor, String fixedBy, List<String> module, String caseOrCrNo,
+                                        String filesModifiedInPerforce, String filesReleasedToCustomer, String rolledIntoVersion,
+                                        String specificFunc, int page_no, int page_size,
+                                        SortField sort_by, Sort.Direction sort_order, Set<String> fields,
+                                        boolean facets) {
+        SearchParameters.checkPage(page_no, page_size);
+        SearchCriteria criteria = new SearchCriteria(ecpNo, description, cramerVersion, latestEcp, requestor,
+                fixedBy, module, caseOrCrNo, filesModifiedInPerforce, filesReleasedToCustomer, rolledIntoVersion,
+                specificFunc);
+        List<Object> key = Arrays.asList("searchWithTotal", criteria.normalized(), page_no, page_size, sort_by,
+                sort_order, fields, facets);
+        return resultCache.get(generation, key, () -> findWithTotal(generation, criteria, page_no, page_size, sort_by,
+                sort_order, fields, facets), result -> result.getDetails().size());
+    }
+
+    private SearchResult findWithTotal(DataGeneration generation, SearchCriteria criteria, int page_no, int page_size, SortField sort_by,
+                                       Sort.Direction sort_order, Set<String> fields, boolean facets) {
+        long offset = 0;
+        int limit = Integer.MAX_VALUE;
+        if (SearchParameters.isPaged(page_no, page_size)) {
+            PageRequest page = PageRequest.of(page_no, page_size);
+            offset = page.getOffset();
+            limit = page.getPageSize();
+        }
+
+        SearchResult result;
+        ECPSearchIndex index = generation.getSearchIndex();
+        if (index != null) {
+            result = index.evaluate(criteria, sort_by, sort_order.isAscending(), offset, limit, facets);
+        } else {
+            result = aggregateSearch(generation, criteria, sort_by.sort(sort_order), offset, limit, fields, facets);
+        }
+        return new SearchResult(Collections.unmodifiableList(result.getDetails()), result.getTotal(),
+                result.getFacets());
+    }
+
+    /**
+     * One $facet aggregation yields the total, the facet counts and, for a paged search, the
+     * page as a $sort/$skip/$limit sub-pipeline, so the criteria are evaluated once. An
+     * unpaged search reads its records with a separate find instead, which streams them
+     * rather than collecting them into one aggregation result document, limited to 16 MB.
+     */
+    private SearchResult aggregateSearch(DataGeneration generation, SearchCriteria criteria, Sort sort, long offset, int limit,
+                                         Set<String> fields, boolean facets) {
+        boolean paged = limit != Integer.MAX_VALUE;
+        //The leading $match relaxes the version and module selection for facet counts; re-apply it.
+        List<AggregationOperation> selected = new ArrayList<>();
+        if (facets) {
+            selected.add(Aggregation.match(allOf(Arrays.asList(
+                    facetCriteria(ECPSearchIndex.VERSION_FACET, criteria.getCramerVersion()),
+                    facetCriteria(ECPSearchIndex.MODULE_FACET, criteria.getModule())))));
+        }
+
+        List<AggregationOperation> total = new ArrayList<>(selected);
+        total.add(Aggregation.count().as("total"));
+        FacetOperation facet = Aggregation.facet(total.toArray(new AggregationOperation[0])).as("total");
+        if (paged) {
+            List<AggregationOperation> page = new ArrayList<>(selected);
+            page.add(Aggregation.sort(sort));
+            page.add(Aggregation.skip(offset));
+            page.add(Aggregation.limit(limit));
+            if (fields != null) {
+                page.add(Aggregation.project(fields.toArray(new String[0])));
+            }
+            facet = facet.and(page.toArray(new AggregationOperation[0])).as("details");
+        }
+        if (facets) {
+            facet = withFacetCounts(facet, criteria);
+        }
+
+        Aggregation aggregation = Aggregation.newAggregation(Aggregation.match(leadingCriteria(criteria, facets)), facet);
+        Document output = mongoTemplate.aggregate(aggregation, ECPLog.class, Document.class).getUniqueMappedResult();
+
+        List<ECPLog> details;
+        if (paged) {
+            details = new ArrayList<>();
+            for (Document document : output.getList("details", Document.class)) {
+                details.add(mongoTemplate.getConverter().read(ECPLog.class, document));
+            }
+        } else {
+            details = mongoTemplate.find(project(Query.query(matchCriteria(criteria)).with(sort), fields), ECPLog.class);
+        }
+        List<Document> totalCount = output.getList("total", Document.class);
+        return new SearchResult(details, totalCount.isEmpty() ? 0 : totalCount.get(0).get("total", Number.class).longValue(),
+                facets ? readFacets(output, generation) : null);
+    }
+
+    /**
+     * Counts per cramerVersion and per module in one $facet aggregation, for searches without
+     * the in-memory search engine.
+     */
+    private Map<String, Map<String, Long>> aggregateFacets(DataGeneration generation, SearchCriteria criteria) {
+        Aggregation aggregation = Aggregation.newAggregation(Aggregation.match(leadingCriteria(criteria, true)),
+                withFacetCounts(Aggregation.facet(), criteria));
+        Document output = mongoTemplate.aggregate(aggregation, ECPLog.class, Document.class).getUniqueMappedResult();
+        return readFacets(output, generation);
+    }
+
+    /**
+     * Criteria of the leading $match of a $facet aggregation, where MongoDB can use an index.
+     * Without facet counts these are all criteria. Each facet count drops the selection on its
+     * own facet, so with facet counts a record is needed if it is selected on either facet.
+     */
+    private Criteria leadingCriteria(SearchCriteria criteria, boolean facets) {
+        if (!facets) {
+            return matchCriteria(criteria);
+        }
+        List<Criteria> predicates = textPredicates(criteria);
+        if (!criteria.getCramerVersion().isEmpty() && !criteria.getModule().isEmpty()) {
+            predicates.add(new Criteria().orOperator(
+                    facetCriteria(ECPSearchIndex.VERSION_FACET, criteria.getCramerVersion()),
+                    facetCriteria(ECPSearchIndex.MODULE_FACET, criteria.getModule())));
+        }
+        return allOf(predicates);
+    }
+
+    /**
+     * Add the cramerVersion and module counts as sub-pipelines. Like ECPSearchIndex.facetCounts,
+     * the counts of one facet apply the selection on the other facet only.
+     */
+    private static FacetOperation withFacetCounts(FacetOperation facet, SearchCriteria criteria) {
+        Criteria versionCriteria = facetCriteria(ECPSearchIndex.VERSION_FACET, criteria.getCramerVersion());
+        Criteria moduleCriteria = facetCriteria(ECPSearchIndex.MODULE_FACET, criteria.getModule());
+        return facet
+                .and(Aggregation.match(moduleCriteria), Aggregation.group("cramerVersion").count().as("count"))
+                .as(ECPSearchIndex.VERSION_FACET)
+                .and(Aggregation.match(versionCriteria), Aggregation.group("module").count().as("count"))
+                .as(ECPSearchIndex.MODULE_FACET);
+    }
+
+    private static Map<String, Map<String, Long>> readFacets(Document output, DataGeneration generation) {
+        Map<String, Map<String, Long>> facetCounts = new LinkedHashMap<>();
+        facetCounts.put(ECPSearchIndex.VERSION_FACET, readFacetCounts(output.getList(ECPSearchIndex.VERSION_FACET, Document.class),
+                generation.getDistinctVersions()));
+        facetCounts.put(ECPSearchIndex.MODULE_FACET, readFacetCounts(output.getList(ECPSearchIndex.MODULE_FACET, Document.class),
+                generation.getDistinctModules()));
+        return facetCounts;
+    }
+
+    /**
+     * Regex criteria on the free-text fields with a non-empty term. Empty terms match
+     * everything, so they get no predicate at all, and a search on one field is one $regex.
+     */
+    private static List<Criteria> textPredicates(SearchCriteria criteria) {
+        List<Criteria> predicates = new ArrayList<>();
+        for (SearchField field : SearchField.values()) {
+            String regex = SearchTerm.of(field.termOf(criteria)).regex();
+            if (regex != null) {
+                predicates.add(Criteria.where(field.getFieldName()).regex(regex, "i"));
+            }
+        }
+        return predicates;
+    }
+
+    /**
+     * Conjunction of the criteria, leaving out those without a condition. A single predicate
+     * is not wrapped in $and, so the query planner sees it directly.
+     */
+    private static Criteria allOf(List<Criteria> criteria) {
+        List<Criteria> predicates = new ArrayList<>();
+        for (Criteria c : criteria) {
+            if (!c.getCriteriaObject().isEmpty()) {
+                predicates.add(c);
+            }
+        }
+        if (predicates.isEmpty()) {
+            return new Criteria();
+        }
+        if (predicates.size() == 1) {
+            return predicates.get(0);
+        }
+        return new Criteria().andOperator(predicates.toArray(new Criteria[0]));
+    }
+
+    /**
+     * Read only the given attributes, or all of them if fields is null.
+     */
+    private static Query project(Query query, Set<String> fields) {
+        if (fields != null) {
+            for (String field : fields) {
+                query.fields().include(field);
+            }
+        }
+        return query;
+    }
+
+    /**
+     * All search criteria; an omitted cramerVersion or module list does not filter.
+     */
+    Criteria matchCriteria(SearchCriteria criteria) {
+        List<Criteria> predicates = textPredicates(criteria);
+        predicates.add(facetCriteria(ECPSearchIndex.VERSION_FACET, criteria.getCramerVersion()));
+        predicates.add(facetCriteria(ECPSearchIndex.MODULE_FACET, criteria.getModule()));
+        return allOf(predicates);
+    }
+
+    /**
+     * Records sorting after the cursor position: a later sort value, or the same value and a
+     * later _id. Null values sort first, as in MongoDB.
+     */
+    private static Criteria keysetCriteria(SearchCursor after) {
+        String field = after.getSortField().getFieldName();
+        Object value = after.getValue();
+        long id = after.getId();
+        if (after.isAscending()) {
+            if (value == null) {
+                return new Criteria().orOperator(Criteria.where(field).is(null).and("_id").gt(id),
+                        Criteria.where(field).ne(null));
+            }
+            return new Criteria().orOperator(Criteria.where(field).gt(value),
+                    Criteria.where(field).is(value).and("_id").gt(id));
+        }
+        if (value == null) {
+            return Criteria.where(field).is(null).and("_id").lt(id);
+        }
+        return new Criteria().orOperator(Criteria.where(field).lt(value),
+                Criteria.where(field).is(value).and("_id").lt(id),
+                Criteria.where(field).is(null));
+    }
+
+    private static Criteria facetCriteria(String field, List<String> values) {
+        return values.isEmpty() ? new Criteria() : Criteria.where(field).in(values);
+    }
+
+    /**
+     * Counts of a $group sub-pipeline, listing known values without matches with count 0.
+     */
+    private static Map<String, Long> readFacetCounts(List<Document> groups, List<String> allValues) {
+        Map<String, Long> counts = new TreeMap<>();
+        for (String value : allValues) {
+            if (value != null) {
+                counts.put(value, 0L);
+            }
+        }
+        for (Document group : groups) {
+            if (group.get("_id") != null) {
+                counts.put(group.get("_id").toString(), group.get("count", Number.class).longValue());
+            }
+        }
+        return counts;
     }
 
     /***
@@ -93,27 +471,54 @@ public class ECPLogService {
     }
 
     /***
-     * Count total matching records for given parameters.
+     * Count total matching records for given parameters, answered from the result cache when possible.
      */
-    public Long countMatchingRecords(String ecpNo, String description, List<String> cramerVersion,
+    public Long countMatchingRecords(DataGeneration generation, String ecpNo, String description, List<String> cramerVersion,
                                      String latestEcp, String requestor, String fixedBy, List<String> module, String caseOrCrNo,
                                      String filesModifiedInPerforce, String filesReleasedToCustomer, String rolledIntoVersion,
                                      String specificFunc) {
-        ecpNo = formatString(ecpNo);
-        description = formatString(description);
-        latestEcp = formatString(latestEcp);
-        requestor = formatString(requestor);
-        fixedBy = formatString(fixedBy);
-        caseOrCrNo = formatString(caseOrCrNo);
-        filesModifiedInPerforce = formatString(filesModifiedInPerforce);
-        filesReleasedToCustomer = formatString(filesReleasedToCustomer);
-        rolledIntoVersion = formatString(rolledIntoVersion);
-        specificFunc = formatString(specificFunc);
-
-        Long result = ecpRepo.findByOptionsGetCount(ecpNo, description, cramerVersion,
-                latestEcp, requestor, fixedBy, module, caseOrCrNo, filesModifiedInPerforce,
-                filesReleasedToCustomer, rolledIntoVersion, specificFunc);
-        return result;
+        SearchCriteria criteria = new SearchCriteria(ecpNo, description, cramerVersion, latestEcp, requestor,
+                fixedBy, module, caseOrCrNo, filesModifiedInPerforce, filesReleasedToCustomer, rolledIntoVersion,
+                specificFunc);
+        return resultCache.get(generation, Arrays.asList("countMatchingRecords", criteria.normalized()),
+                () -> countRecords(generation, ecpNo, description, cramerVersion, latestEcp, requestor, fixedBy, module,
+                        caseOrCrNo, filesModifiedInPerforce, filesReleasedToCustomer, rolledIntoVersion, specificFunc),
+                count -> 1);
+    }
+
+    private Long countRecords(DataGeneration generation, String ecpNo, String description, List<String> cramerVersion,
+                              String latestEcp, String requestor, String fixedBy, List<String> module, String caseOrCrNo,
+                              String filesModifiedInPerforce, String filesReleasedToCustomer, String rolledIntoVersion,
+                              String specificFunc) {
+        ECPSearchIndex index = generation.getSearchIndex();
+        if (index != null) {
+            return index.count(new SearchCriteria(ecpNo, description, cramerVersion, latestEcp, requestor,
+                    fixedBy, module, caseOrCrNo, filesModifiedInPerforce, filesReleasedToCustomer, rolledIntoVersion,
+                    specificFunc));
+        }
+
+        Query query = Query.query(matchCriteria(new SearchCriteria(ecpNo, description, cramerVersion, latestEcp,
+                requestor, fixedBy, module, caseOrCrNo, filesModifiedInPerforce, filesReleasedToCustomer,
+                rolledIntoVersion, specificFunc)));
+        return mongoTemplate.count(query, ECPLog.class);
+    }
+
+    /***
+     * Count matching records per cramerVersion and per module for given parameters, from the
+     * in-memory search engine when it is loaded and with a MongoDB aggregation otherwise.
+     */
+    public Map<String, Map<String, Long>> countFacets(DataGeneration generation, String ecpNo, String description, List<String> cramerVersion,
+                                                      String latestEcp, String requestor, String fixedBy, List<String> module, String caseOrCrNo,
+                                                      String filesModifiedInPerforce, String filesReleasedToCustomer, String rolledIntoVersion,
+                                                      String specificFunc) {
+        SearchCriteria criteria = new SearchCriteria(ecpNo, description, cramerVersion, latestEcp, requestor,
+                fixedBy, module, caseOrCrNo, filesModifiedInPerforce, filesReleasedToCustomer, rolledIntoVersion,
+                specificFunc);
+        ECPSearchIndex index = generation.getSearchIndex();
+        if (index == null) {
+            return aggregateFacets(generation, criteria);
+        }
+        return index.facetCounts(criteria);
     }
 
     /***
@@ -138,6 +543,120 @@ public class ECPLogService {
         return ecpRepo.saveAll(ecp_list);
     }
 
+    /***
+     * Drop any leftover staging collection so that a new generation can be loaded into it.
+     */
+    public void prepareStaging() {
+        mongoTemplate.dropCollection(STAGING_COLLECTION);
+    }
+
+    /***
+     * Insert batch of hotfixes into the staging collection using one unordered bulk write.
+     * Unlike saveAll, this does not check for existing ids before inserting.
+     */
+    public int insertIntoStaging(List<ECPLog> ecp_list) {
+        if (ecp_list.isEmpty()) {
+            return 0;
+        }
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ECPLog.class, STAGING_COLLECTION);
+        bulkOps.insert(ecp_list);
+        return bulkOps.execute().getInsertedCount();
+    }
+
+    /***
+     * Build the indexes declared on ECPLog for the staging collection and atomically rename it
+     * over the live collection. The old generation is dropped by the rename itself, so readers
+     * see either the complete old data or the complete new data.
+     */
+    public void promoteStaging() {
+        ensureIndexes(ECPLog.class, STAGING_COLLECTION);
+
+        if (!mongoTemplate.collectionExists(STAGING_COLLECTION)) {
+            mongoTemplate.createCollection(STAGING_COLLECTION);
+        }
+        String liveCollection = mongoTemplate.getCollectionName(ECPLog.class);
+        mongoTemplate.getCollection(STAGING_COLLECTION).renameCollection(
+                new MongoNamespace(mongoTemplate.getDb().getName(), liveCollection),
+                new RenameCollectionOptions().dropTarget(true));
+        LOG.info("Staging collection promoted to " + liveCollection);
+    }
+
+    /***
+     * Create the indexes declared on ECPLog and UserDetails if they do not exist yet. This is
+     * the only place the live collections get their indexes: Spring Data's automatic index
+     * creation is turned off, as it would build them a second time and connect to MongoDB
+     * while the context starts.
+     */
+    public void provisionIndexes() {
+        ensureIndexes(ECPLog.class, mongoTemplate.getCollectionName(ECPLog.class));
+        ensureIndexes(UserDetails.class, mongoTemplate.getCollectionName(UserDetails.class));
+    }
+
+    private void ensureIndexes(Class<?> entity, String collection) {
+        IndexOperations indexOps = mongoTemplate.indexOps(collection);
+        MongoPersistentEntityIndexResolver resolver =
+                new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        for (IndexDefinition index : resolver.resolveIndexFor(entity)) {
+            indexOps.ensureIndex(index);
+        }
+    }
+
+    /***
+     * Discard a partially loaded staging collection. The live collection is left untouched.
+     */
+    public void dropStaging() {
+        mongoTemplate.dropCollection(STAGING_COLLECTION);
+    }
+
+    /***
+     * Get ecpNo, _id and content hash of every hotfix in database, grouped by ecpNo.
+     * Each group is sorted on _id, so repeated ecpNos keep their sheet order.
+     */
+    public Map<String, List<ECPLog>> findContentHashes() {
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "_id"));
+        query.fields().include("ecpNo").include("contentHash");
+
+        Map<String, List<ECPLog>> result = new HashMap<>();
+        for (ECPLog ecp : mongoTemplate.find(query, ECPLog.class)) {
+            result.computeIfAbsent(ecp.getEcpNo(), k -> new ArrayList<>()).add(ecp);
+        }
+        return result;
+    }
+
+    /***
+     * Highest _id in database, or 0 if there are no hotfixes.
+     */
+    public long findMaxId() {
+        Query query = new Query().with(Sort.by(Sort.Direction.DESC, "_id")).limit(1);
+        query.fields().include("_id");
+        ECPLog last = mongoTemplate.findOne(query, ECPLog.class);
+        return last == null ? 0 : last.get_id();
+    }
+
+    /***
+     * Insert or replace batch of hotfixes keyed on _id using one unordered bulk write.
+     */
+    public int upsertById(List<ECPLog> ecp_list) {
+        if (ecp_list.isEmpty()) {
+            return 0;
+        }
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ECPLog.class);
+        for (ECPLog ecp : ecp_list) {
+            Query query = Query.query(Criteria.where("_id").is(ecp.get_id()));
+            bulkOps.replaceOne(query, ecp, FindAndReplaceOptions.options().upsert());
+        }
+        BulkWriteResult result = bulkOps.execute();
+        return result.getUpserts().size() + result.getModifiedCount();
+    }
+
+    /***
+     * Delete hotfixes with given ids from database.
+     */
+    public long removeByIds(Collection<Long> ids) {
+        Query query = Query.query(Criteria.where("_id").in(ids));
+        return mongoTemplate.remove(query, ECPLog.class).getDeletedCount();
+    }
+
     /**
      * Get all records from Database.
      */
@@ -152,72 +671,89 @@ public class ECPLogService {
 
     /***
      * Get only those hotfixes which are superseded by given hotfix number.
+     * Served from the supersession graph once it is loaded.
      */
     public Map<Integer, String> getUnderlyingHF(String latestEcp) {
-        List<ECPLog> ecp = ecpRepo.findByLatestEcp(latestEcp);
-        Map<Integer, String> result_map = new TreeMap<Integer, String>(Collections.reverseOrder());
-
-        for (ECPLog e : ecp) {
-            try {
-                result_map.put(Integer.valueOf(e.getSequence()), e.getEcpNo());
-            } catch (Exception ex) {
-                result_map.put(-1, e.getEcpNo());
-            }
+        SupersessionGraph graph = generations.current().getSupersessionGraph();
+        if (graph != null) {
+            return graph.underlying(latestEcp);
         }
-        return result_map;
+        return SupersessionGraph.underlying(ecpRepo.findByLatestEcp(latestEcp));
     }
 
     /***
-     * Get distinct product versions among all records.
+     * Get all hotfixes superseding the given ecpNo, directly or through later hotfixes,
+     * nearest first.
      */
-    public synchronized Set<String> getDistinctVersions() {
-
-        Set<String> versions = new HashSet<String>();
-        List<ECPLog> all_ecp = this.findAll();
-        for (ECPLog ecp : all_ecp) {
-            versions.add(ecp.getCramerVersion());
-        }
-
-        return versions;
+    public List<String> getSupersedingHF(String ecpNo) {
+        return loadedSupersessionGraph().supersedingHotfixes(ecpNo);
     }
 
     /***
-     * Get distinct product modules among all records.
+     * Get all hotfixes which must be installed before the given ecpNo, directly or as
+     * prerequisites of other prerequisites, in install order.
      */
-    public synchronized Set<String> getDistinctModules() {
-        Set<String> modules = new HashSet<String>();
+    public List<String> getPrerequisiteHF(String ecpNo) {
+        return loadedSupersessionGraph().prerequisites(ecpNo);
+    }
 
-        List<ECPLog> all_ecp = this.findAll();
-        for (ECPLog ecp : all_ecp) {
-            modules.add(ecp.getModule());
+    /**
+     * The graph of the current generation. Building one from all records per request would
+     * cost as much as a refresh, so until the first generation is published there is none.
+     *
+     * @throws DataNotLoadedException before the first refresh
+     */
+    private SupersessionGraph loadedSupersessionGraph() {
+        SupersessionGraph graph = generations.current().getSupersessionGraph();
+        if (graph == null) {
+            throw new DataNotLoadedException("Hotfix data is still being loaded, please retry shortly");
         }
-
-        return modules;
+        return graph;
     }
 
     /***
-     * Utility method for appending/prepending/replacing all whitespaces with ".*"
+     * Build a new data generation from the given records and publish it to all read
+     * endpoints at once: catalogs, summary, counts, search index, supersession graph and
+     * the serialised catalog and summary responses.
      */
-    public String formatString(String str) {
-        StringBuffer sb = new StringBuffer(str.trim());
-        sb.insert(0, ".*");
-        sb.append(".*");
-
-        return sb.toString().replaceAll("\\s", ".*");
+    public void publishGeneration(Collection<ECPLog> ecpLogs, HotfixSummary summary) throws JsonProcessingException {
+        long startTime = System.currentTimeMillis();
+        //Both catalogs in one pass over the records just loaded, sorted and without null.
+        Set<String> versionSet = new TreeSet<>();
+        Set<String> moduleSet = new TreeSet<>();
+        for (ECPLog ecp : ecpLogs) {
+            if (ecp.getCramerVersion() != null) {
+                versionSet.add(ecp.getCramerVersion());
+            }
+            if (ecp.getModule() != null) {
+                moduleSet.add(ecp.getModule());
+            }
+        }
+        List<String> versions = Collections.unmodifiableList(new ArrayList<>(versionSet));
+        List<String> modules = Collections.unmodifiableList(new ArrayList<>(moduleSet));
+        ECPSearchIndex searchIndex = searchEngine.build(ecpLogs);
+        SupersessionGraph graph = new SupersessionGraph(ecpLogs);
+        LOG.info("Supersession graph loaded with " + graph.size() + " latest hotfixes in "
+                + (System.currentTimeMillis() - startTime) + " ms.");
+
+        DataGeneration generation = new DataGeneration(generations.current().getNumber() + 1, new Date(),
+                versions, modules, ecpLogs.size(), searchIndex, graph,
+                objectMapper.writeValueAsBytes(versions), objectMapper.writeValueAsBytes(modules),
+                summary == null ? null : objectMapper.writeValueAsBytes(summary));
+        generations.publish(generation);
     }
 
-
     public void loadSampleData() throws IOException {
-        deleteAll();
-        LOG.info("Old records deleted");
-
         File file = resource.getFile();
         String hfRecords = new String(Files.readAllBytes(file.toPath()));
 
         ECPLog[] arr = objectMapper.readValue(hfRecords, ECPLog[].class);
         List<ECPLog> ecpObjects = Arrays.asList(arr);
-        List<ECPLog> result = saveAll(ecpObjects);
-        LOG.info("Total records inserted: " + result.size());
+
+        prepareStaging();
+        int inserted = insertIntoStaging(ecpObjects);
+        promoteStaging();
+        LOG.info("Total records inserted: " + inserted);
     }
 
 }
@@ -0,0 +1,280 @@
+/**
+ * Converts the rows of the ECP sheet into ECPLog objects. The header row is compiled once into
+ * a plan with one setter per column number, so converting a row needs no header lookups.
+ * Instances are immutable, so one converter is shared by all converter threads.
+ *
+ * @author Avinash Tingre
+ */
+package com.avinash.HotfixService.Service;
+
+import com.avinash.HotfixService.Model.ECPLog;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.function.BiConsumer;
+
+final class ECPRowConverter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ECPRowConverter.class);
+    private static final String EMPTY_VALUE = "-";
+    //Dates typed into the sheet as text, e.g. "09-Mar-2010".
+    private static final DateTimeFormatter DATE_FORMATTER = new DateTimeFormatterBuilder()
+            .parseCaseInsensitive().appendPattern("d-MMM-yyyy").toFormatter(Locale.ENGLISH);
+    //Lenient parser used before, still accepting e.g. full month names and trailing text.
+    private static final ThreadLocal<DateFormat> LENIENT_DATE_FORMAT =
+            ThreadLocal.withInitial(() -> new SimpleDateFormat("dd-MMM-yyyy"));
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    //Day 0 of the Excel 1900 date system (serial 1 is 1900-01-01, leap day bug included).
+    private static final LocalDate EXCEL_EPOCH = LocalDate.of(1899, 12, 30);
+    //Day 0 of the Excel 1904 date system used by workbooks created on old Macs.
+    private static final LocalDate EXCEL_1904_EPOCH = LocalDate.of(1904, 1, 1);
+    //Stored for empty or unparseable dates (same value as the previously used new Date(0, 0, 0)).
+    private static final long MISSING_DATE = LocalDate.of(1899, 12, 31).atStartOfDay(ZONE).toInstant().toEpochMilli();
+
+    //Setter for every text column header defined in ECPLogConstants.
+    private static final Map<String, BiConsumer<ECPLog, String>> SETTERS = createSetters();
+    //Setter for every date column header defined in ECPLogConstants.
+    private static final Map<String, BiConsumer<ECPLog, Date>> DATE_SETTERS = createDateSetters();
+
+    private final int columnCount;
+    //True if the workbook uses the 1904 date system.
+    private final boolean date1904;
+    private final List<BiConsumer<ECPLog, String>> plan;
+    private final int[] dateColumns;
+    private final List<BiConsumer<ECPLog, Date>> dateSetters;
+
+    ECPRowConverter(Row headRow, boolean date1904) {
+        this.date1904 = date1904;
+        columnCount = headRow.getLastCellNum();
+        dateColumns = new int[DATE_SETTERS.size()];
+        dateSetters = new ArrayList<>(DATE_SETTERS.size());
+        plan = initializeColumnIndexes(headRow);
+    }
+
+    /**
+     * Map every column number to the setter of its header. Columns with unknown headers are
+     * left null and skipped.
+     */
+    private List<BiConsumer<ECPLog, String>> initializeColumnIndexes(Row headRow) {
+        Map<String, Integer> columnIndex = new HashMap<>();
+        for (int colIndex = 0; colIndex < columnCount; colIndex++) {
+            String headerName;
+            try {
+                headerName = headRow.getCell(colIndex).getStringCellValue();
+            } catch (NullPointerException ex) {
+                headerName = "xxx";
+            }
+
+            columnIndex.put(headerName, colIndex);
+        }
+
+        List<BiConsumer<ECPLog, String>> setters = new ArrayList<>(Collections.nCopies(columnCount, null));
+        for (Map.Entry<String, BiConsumer<ECPLog, String>> setter : SETTERS.entrySet()) {
+            setters.set(indexOf(columnIndex, setter.getKey()), setter.getValue());
+        }
+
+        int d = 0;
+        for (Map.Entry<String, BiConsumer<ECPLog, Date>> setter : DATE_SETTERS.entrySet()) {
+            dateColumns[d] = indexOf(columnIndex, setter.getKey());
+            dateSetters.add(setter.getValue());
+            d++;
+        }
+        return setters;
+    }
+
+    private static int indexOf(Map<String, Integer> columnIndex, String header) {
+        Integer index = columnIndex.get(header);
+        if (index == null) {
+            throw new NullPointerException("Column names are incorrectly defined. Check the values defined in ECPLogConstants class.\n"
+                    + "Missing column: " + header);
+        }
+        return index;
+    }
+
+    /**
+     * Copy the cell values of a row. Rows from the streaming reader are only valid on the
+     * reading thread, the returned copy can be handed to any thread. Numeric date cells are
+     * kept as Excel serial numbers and only converted on the converter threads.
+     */
+    RowValues snapshot(Row row) {
+        String[] text = new String[columnCount];
+        double[] dateSerials = new double[dateColumns.length];
+
+        for (int i = 0; i < columnCount; i++) {
+            Cell c = row.getCell(i);
+
+            if (c == null) {
+                text[i] = EMPTY_VALUE;
+            } else if (c.getCellType() == CellType.NUMERIC) {
+                text[i] = String.valueOf((int) c.getNumericCellValue());
+            } else if (c.getCellType() == CellType.STRING && !c.getStringCellValue().equals("")) {
+                text[i] = c.getStringCellValue();
+            } else {
+                text[i] = EMPTY_VALUE;
+            }
+        }
+
+        for (int d = 0; d < dateColumns.length; d++) {
+            Cell c = row.getCell(dateColumns[d]);
+            if (c != null && c.getCellType() == CellType.NUMERIC) {
+                dateSerials[d] = c.getNumericCellValue();
+            } else {
+                dateSerials[d] = Double.NaN;
+            }
+        }
+        return new RowValues(text, dateSerials);
+    }
+
+    /**
+     * Build the ECPLog for a row snapshot. Safe to call from several threads at once.
+     */
+    ECPLog convert(RowValues row, long count) {
+        ECPLog ecp_object = new ECPLog();
+        ecp_object.set_id(count + 1);
+
+        for (int i = 0; i < columnCount; i++) {
+            BiConsumer<ECPLog, String> setter = plan.get(i);
+            if (setter != null) {
+                setter.accept(ecp_object, row.text[i]);
+            }
+        }
+        for (int d = 0; d < dateColumns.length; d++) {
+            double serial = row.dateSerials[d];
+            Date date = Double.isNaN(serial) ? parseDate(row.text[dateColumns[d]]) : fromExcelSerial(serial, date1904);
+            dateSetters.get(d).accept(ecp_object, date);
+        }
+
+        if (ecp_object.getLatestEcp().equalsIgnoreCase(ecp_object.getEcpNo())) {
+            ecp_object.setIsThisLatestHF("TRUE");
+        } else {
+            ecp_object.setIsThisLatestHF("FALSE");
+        }
+        return ecp_object;
+    }
+
+    private static Map<String, BiConsumer<ECPLog, String>> createSetters() {
+        Map<String, BiConsumer<ECPLog, String>> setters = new HashMap<>();
+        setters.put(ECPLogConstants.cramerVersion, ECPLog::setCramerVersion);
+        setters.put(ECPLogConstants.isPreRequisite, ECPLog::setIsPreRequisite);
+        setters.put(ECPLogConstants.prereqForLatestEcp, ECPLog::setPrereqForLatestEcp);
+        setters.put(ECPLogConstants.latestEcp, ECPLog::setLatestEcp);
+        setters.put(ECPLogConstants.ecpNo, ECPLog::setEcpNo);
+        setters.put(ECPLogConstants.sequence, ECPLog::setSequence);
+        setters.put(ECPLogConstants.orNo, ECPLog::setOrNo);
+        setters.put(ECPLogConstants.description, ECPLog::setDescription);
+        setters.put(ECPLogConstants.status, ECPLog::setStatus);
+        setters.put(ECPLogConstants.fixedBy, ECPLog::setFixedBy);
+        setters.put(ECPLogConstants.module, ECPLog::setModule);
+        setters.put(ECPLogConstants.version, ECPLog::setVersion);
+        setters.put(ECPLogConstants.caseOrCrNo, ECPLog::setCaseOrCrNo);
+        setters.put(ECPLogConstants.requestor, ECPLog::setRequestor);
+        setters.put(ECPLogConstants.filesModifiedInPerforce, ECPLog::setFilesModifiedInPerforce);
+        setters.put(ECPLogConstants.fileLocationInPerforce, ECPLog::setFileLocationInPerforce);
+        setters.put(ECPLogConstants.filesReleasedToCustomer, ECPLog::setFilesReleasedToCustomer);
+        setters.put(ECPLogConstants.type, ECPLog::setType);
+        setters.put(ECPLogConstants.notes, ECPLog::setNotes);
+        setters.put(ECPLogConstants.downloadCenter, ECPLog::setDownloadCenter);
+        setters.put(ECPLogConstants.ecpReplaced, ECPLog::setEcpReplaced);
+        setters.put(ECPLogConstants.additionalInfo, ECPLog::setAdditionalInfo);
+        setters.put(ECPLogConstants.fixRolledIntoModule, ECPLog::setFixRolledIntoModule);
+        setters.put(ECPLogConstants.rolledIntoVersion, ECPLog::setRolledIntoVersion);
+        setters.put(ECPLogConstants.rollupCr, ECPLog::setRollupCr);
+        setters.put(ECPLogConstants.escapingDefect, ECPLog::setEscapingDefect);
+        setters.put(ECPLogConstants.reportingVersion, ECPLog::setReportingVersion);
+        setters.put(ECPLogConstants.originalIssue, ECPLog::setOriginalIssue);
+        setters.put(ECPLogConstants.addedToExtranet, ECPLog::setAddedToExtranet);
+        setters.put(ECPLogConstants.addedToExtranetUpdate, ECPLog::setAddedToExtranetUpdate);
+        setters.put(ECPLogConstants.addedToPatchBundle, ECPLog::setAddedToPatchBundle);
+        setters.put(ECPLogConstants.hfNotBuiltSep, ECPLog::setHfNotBuiltSep);
+        setters.put(ECPLogConstants.c4IssueAlso, ECPLog::setC4IssueAlso);
+        setters.put(ECPLogConstants.c5IssueAlso, ECPLog::setC5IssueAlso);
+        setters.put(ECPLogConstants.missingBasicFunc, ECPLog::setMissingBasicFunc);
+        setters.put(ECPLogConstants.newComponent, ECPLog::setNewComponent);
+        setters.put(ECPLogConstants.causedByNewComp, ECPLog::setCausedByNewComp);
+        setters.put(ECPLogConstants.platformIssue, ECPLog::setPlatformIssue);
+        setters.put(ECPLogConstants.perfIssue, ECPLog::setPerfIssue);
+        setters.put(ECPLogConstants.upgradeIssue, ECPLog::setUpgradeIssue);
+        setters.put(ECPLogConstants.newFuncAdded, ECPLog::setNewFuncAdded);
+        setters.put(ECPLogConstants.mandatoryEcp, ECPLog::setMandatoryEcp);
+        setters.put(ECPLogConstants.specificFunc, ECPLog::setSpecificFunc);
+        setters.put(ECPLogConstants.multiModulesAffected, ECPLog::setMultiModulesAffected);
+        setters.put(ECPLogConstants.severity, ECPLog::setSeverity);
+        setters.put(ECPLogConstants.priority, ECPLog::setPriority);
+        setters.put(ECPLogConstants.ecpFaulty, ECPLog::setEcpFaulty);
+        setters.put(ECPLogConstants.hfRolllupInfo, ECPLog::setHfRolllupInfo);
+        return Collections.unmodifiableMap(setters);
+    }
+
+    private static Map<String, BiConsumer<ECPLog, Date>> createDateSetters() {
+        Map<String, BiConsumer<ECPLog, Date>> setters = new HashMap<>();
+        setters.put(ECPLogConstants.requestDate, ECPLog::setRequestDate);
+        setters.put(ECPLogConstants.targetDate, ECPLog::setTargetDate);
+        setters.put(ECPLogConstants.releasedDate, ECPLog::setReleasedDate);
+        return Collections.unmodifiableMap(setters);
+    }
+
+    /**
+     * Local midnight of the day given by an Excel serial date number, in the 1900 or the
+     * 1904 date system of the workbook.
+     */
+    static Date fromExcelSerial(double serial, boolean date1904) {
+        if (serial < 0) {
+            return new Date(MISSING_DATE);
+        }
+        long wholeDays = (long) serial;
+        LocalDate day;
+        if (date1904) {
+            day = EXCEL_1904_EPOCH.plusDays(wholeDays);
+        } else {
+            //Serials before 1900-03-01 are shifted by the non-existent 1900-02-29.
+            day = EXCEL_EPOCH.plusDays(wholeDays < 61 ? wholeDays + 1 : wholeDays);
+        }
+        return Date.from(day.atStartOfDay(ZONE).toInstant());
+    }
+
+    /**
+     * Local midnight of a date typed as text, or the missing-date marker if it is not a date.
+     * Text which is not exactly d-MMM-yyyy falls back to the lenient parser used before.
+     */
+    static Date parseDate(String value) {
+        if (value == null || value.equals(EMPTY_VALUE)) {
+            return new Date(MISSING_DATE);
+        }
+        try {
+            return Date.from(LocalDate.parse(value.trim(), DATE_FORMATTER).atStartOfDay(ZONE).toInstant());
+        } catch (DateTimeParseException e) {
+            try {
+                return LENIENT_DATE_FORMAT.get().parse(value);
+            } catch (ParseException ex) {
+                LOG.warn("Not a date: \"" + value + "\", stored as missing date.");
+                return new Date(MISSING_DATE);
+            }
+        }
+    }
+
+    /**
+     * Cell values of one data row: the text of every column and, for the date columns, the
+     * Excel serial number if the cell is numeric (NaN otherwise).
+     */
+    static final class RowValues {
+        private final String[] text;
+        private final double[] dateSerials;
+
+        RowValues(String[] text, double[] dateSerials) {
+            this.text = text;
+            this.dateSerials = dateSerials;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/**
+ * In-process search over all hotfix records, used instead of the regex queries on MongoDB
+ * when enabled. The index is rebuilt after every refresh and published with the data
+ * generation, where ECPLogService reads it; MongoDB stays the source of truth.
+ *
+ * @author Avinash Tingre
+ */
+package com.avinash.HotfixService.Service;
+
+import com.avinash.HotfixService.Model.ECPLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+@Component
+public class ECPSearchEngine {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ECPSearchEngine.class);
+
+    @Value("${app.search.inMemory:false}")
+    private boolean enabled;
+
+    /**
+     * Build an index of the given records for the next data generation, or null if
+     * in-memory search is disabled.
+     */
+    ECPSearchIndex build(Collection<ECPLog> ecpLogs) {
+        if (!enabled) {
+            return null;
+        }
+        long startTime = System.currentTimeMillis();
+        ECPSearchIndex newIndex = new ECPSearchIndex(ecpLogs);
+        LOG.info("Search index loaded with " + newIndex.size() + " records in "
+                + (System.currentTimeMillis() - startTime) + " ms.");
+        return newIndex;
+    }
+}
@@ -0,0 +1,369 @@
+/**
+ * Immutable in-memory copy of all hotfix records, laid out per field for searching.
+ * Rows are kept in ascending releasedDate, then _id order, and every sort field has a
+ * precomputed ordering of the rows.
+ * Long free-text fields are trigram indexed, so that substring searches only verify the
+ * rows containing every trigram of the search words. cramerVersion and module are kept as
+ * one bitmap of rows per distinct value.
+ *
+ * @author Avinash Tingre
+ */
+package com.avinash.HotfixService.Service;
+
+import com.avinash.HotfixService.Model.ECPLog;
+import com.avinash.HotfixService.Model.SearchCriteria;
+import com.avinash.HotfixService.Model.SearchResult;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+final class ECPSearchIndex {
+
+    static final String VERSION_FACET = "cramerVersion";
+    static final String MODULE_FACET = "module";
+
+    private static final SearchField[] TEXT_FIELDS = SearchField.values();
+
+    private final ECPLog[] rows;
+    //Lowercase value of each text field, indexed [field ordinal][row].
+    private final String[][] text;
+    //Trigram index per field ordinal, null for fields which are not trigram indexed.
+    private final TrigramIndex[] trigrams;
+    //Rows per distinct value, sorted by value.
+    private final Map<String, BitSet> versionBitmaps;
+    private final Map<String, BitSet> moduleBitmaps;
+    //Rows in ascending order per sort field, and the position of each row in that order.
+    private final Map<SortField, int[]> orders = new EnumMap<>(SortField.class);
+    private final Map<SortField, int[]> ranks = new EnumMap<>(SortField.class);
+
+    ECPSearchIndex(Collection<ECPLog> ecpLogs) {
+        rows = ecpLogs.toArray(new ECPLog[0]);
+        Arrays.sort(rows, SortField.RELEASED_DATE.comparator());
+
+        text = new String[TEXT_FIELDS.length][rows.length];
+        Map<String, BitSet> versions = new TreeMap<>(Comparator.nullsFirst(Comparator.naturalOrder()));
+        Map<String, BitSet> modules = new TreeMap<>(Comparator.nullsFirst(Comparator.naturalOrder()));
+        for (int r = 0; r < rows.length; r++) {
+            for (SearchField field : TEXT_FIELDS) {
+                String value = field.valueOf(rows[r]);
+                text[field.ordinal()][r] = value == null ? null : value.toLowerCase(Locale.ROOT);
+            }
+            versions.computeIfAbsent(rows[r].getCramerVersion(), key -> new BitSet()).set(r);
+            modules.computeIfAbsent(rows[r].getModule(), key -> new BitSet()).set(r);
+        }
+        versionBitmaps = Collections.unmodifiableMap(versions);
+        moduleBitmaps = Collections.unmodifiableMap(modules);
+
+        trigrams = new TrigramIndex[TEXT_FIELDS.length];
+        for (SearchField field : TEXT_FIELDS) {
+            if (field.isTrigramIndexed()) {
+                trigrams[field.ordinal()] = new TrigramIndex(text[field.ordinal()]);
+            }
+        }
+
+        for (SortField sortField : SortField.values()) {
+            Integer[] sorted = new Integer[rows.length];
+            for (int r = 0; r < rows.length; r++) {
+                sorted[r] = r;
+            }
+            Arrays.sort(sorted, (a, b) -> sortField.comparator().compare(rows[a], rows[b]));
+            int[] order = new int[rows.length];
+            int[] rank = new int[rows.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = sorted[i];
+                rank[sorted[i]] = i;
+            }
+            orders.put(sortField, order);
+            ranks.put(sortField, rank);
+        }
+    }
+
+    int size() {
+        return rows.length;
+    }
+
+    /**
+     * Matching records in the given order, skipping the first offset matches and returning at
+     * most limit records.
+     */
+    List<ECPLog> search(SearchCriteria criteria, SortField sortField, boolean ascending, long offset, int limit) {
+        Predicate predicate = new Predicate(criteria);
+        int[] ordered = inOrder(predicate.candidates(), sortField);
+        List<ECPLog> result = new ArrayList<>();
+        long skipped = 0;
+        for (int i = 0; i < ordered.length && result.size() < limit; i++) {
+            int r = ordered[ascending ? i : ordered.length - 1 - i];
+            if (predicate.matchesText(r)) {
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    result.add(rows[r]);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Pass every matching record to the consumer in the given order, without collecting them.
+     */
+    void forEachMatch(SearchCriteria criteria, SortField sortField, boolean ascending, Consumer<ECPLog> consumer) {
+        Predicate predicate = new Predicate(criteria);
+        int[] ordered = inOrder(predicate.candidates(), sortField);
+        for (int i = 0; i < ordered.length; i++) {
+            int r = ordered[ascending ? i : ordered.length - 1 - i];
+            if (predicate.matchesText(r)) {
+                consumer.accept(rows[r]);
+            }
+        }
+    }
+
+    /**
+     * Up to limit matching records in the given order, starting right after the cursor, or at
+     * the first match if the cursor is null.
+     */
+    List<ECPLog> searchAfter(SearchCriteria criteria, SortField sortField, boolean ascending, SearchCursor after,
+                             int limit) {
+        Predicate predicate = new Predicate(criteria);
+        int[] ordered = inOrder(predicate.candidates(), sortField);
+        int step = ascending ? 1 : -1;
+        int start;
+        if (after == null) {
+            start = ascending ? 0 : ordered.length - 1;
+        } else {
+            start = ascending ? firstAbove(ordered, after, false) : firstAbove(ordered, after, true) - 1;
+        }
+        List<ECPLog> result = new ArrayList<>();
+        for (int i = start; i >= 0 && i < ordered.length && result.size() < limit; i += step) {
+            if (predicate.matchesText(ordered[i])) {
+                result.add(rows[ordered[i]]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Index of the first of the ordered rows sorting after the cursor position (or at it, if
+     * inclusive), ordered.length if there is none.
+     */
+    private int firstAbove(int[] ordered, SearchCursor cursor, boolean inclusive) {
+        int low = 0;
+        int high = ordered.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int cmp = cursor.getSortField().compare(rows[ordered[mid]], cursor.getValue(), cursor.getId());
+            if (cmp > 0 || (inclusive && cmp == 0)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    long count(SearchCriteria criteria) {
+        Predicate predicate = new Predicate(criteria);
+        int[] candidates = predicate.candidates();
+        int n = candidates == null ? rows.length : candidates.length;
+        long count = 0;
+        for (int i = 0; i < n; i++) {
+            int r = candidates == null ? i : candidates[i];
+            if (predicate.matchesText(r)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Number of matching records per cramerVersion and per module. The counts of one facet
+     * apply all criteria except the selection on that facet itself, so they show how many
+     * records each value would add.
+     */
+    Map<String, Map<String, Long>> facetCounts(SearchCriteria criteria) {
+        Predicate predicate = new Predicate(criteria);
+        return facetCounts(predicate, predicate.textMatches());
+    }
+
+    /**
+     * Page of matching records, total number of matches and optionally the facet counts,
+     * all taken from a single evaluation of the criteria.
+     */
+    SearchResult evaluate(SearchCriteria criteria, SortField sortField, boolean ascending, long offset, int limit,
+                          boolean withFacets) {
+        Predicate predicate = new Predicate(criteria);
+        BitSet textMatches = predicate.textMatches();
+        BitSet matches = textMatches;
+        if (predicate.facetFilter != null) {
+            matches = (BitSet) textMatches.clone();
+            matches.and(predicate.facetFilter);
+        }
+
+        int[] ordered = inOrder(matches.stream().toArray(), sortField);
+        List<ECPLog> page = new ArrayList<>();
+        for (long i = offset; i < ordered.length && page.size() < limit; i++) {
+            int position = (int) i;
+            page.add(rows[ordered[ascending ? position : ordered.length - 1 - position]]);
+        }
+        return new SearchResult(page, matches.cardinality(),
+                withFacets ? facetCounts(predicate, textMatches) : null);
+    }
+
+    /**
+     * The given rows in ascending order of the sort field, or the whole ordering if rows is null.
+     */
+    private int[] inOrder(int[] subset, SortField sortField) {
+        if (subset == null) {
+            return orders.get(sortField);
+        }
+        int[] order = orders.get(sortField);
+        int[] rank = ranks.get(sortField);
+        int[] positions = new int[subset.length];
+        for (int i = 0; i < subset.length; i++) {
+            positions[i] = rank[subset[i]];
+        }
+        Arrays.sort(positions);
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = order[positions[i]];
+        }
+        return positions;
+    }
+
+    private Map<String, Map<String, Long>> facetCounts(Predicate predicate, BitSet textMatches) {
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        facets.put(VERSION_FACET, countPerValue(versionBitmaps, textMatches, predicate.moduleFilter));
+        facets.put(MODULE_FACET, countPerValue(moduleBitmaps, textMatches, predicate.versionFilter));
+        return facets;
+    }
+
+    private static Map<String, Long> countPerValue(Map<String, BitSet> bitmaps, BitSet matches, BitSet otherFacet) {
+        BitSet base = matches;
+        if (otherFacet != null) {
+            base = (BitSet) matches.clone();
+            base.and(otherFacet);
+        }
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Map.Entry<String, BitSet> entry : bitmaps.entrySet()) {
+            if (entry.getKey() == null) {
+                continue;
+            }
+            BitSet hits = (BitSet) entry.getValue().clone();
+            hits.and(base);
+            counts.put(entry.getKey(), (long) hits.cardinality());
+        }
+        return counts;
+    }
+
+    /**
+     * Rows having one of the given values, or null if no values are given (no filter).
+     */
+    private static BitSet facetFilter(Map<String, BitSet> bitmaps, List<String> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        BitSet filter = new BitSet();
+        for (String value : values) {
+            BitSet valueRows = bitmaps.get(value);
+            if (valueRows != null) {
+                filter.or(valueRows);
+            }
+        }
+        return filter;
+    }
+
+    /**
+     * The search criteria compiled against this index. Fields whose term matches every value
+     * are only checked for null.
+     */
+    private final class Predicate {
+        private final BitSet versionFilter;
+        private final BitSet moduleFilter;
+        //Rows allowed by both facet filters, null if neither facet is filtered.
+        private final BitSet facetFilter;
+        //Rows narrowed through the trigram indexes, null if no term narrows the search.
+        private final int[] textCandidates;
+        //Columns and terms of the fields with a non-empty term; empty terms are not checked.
+        private final String[][] columns;
+        private final SearchTerm[] terms;
+
+        Predicate(SearchCriteria criteria) {
+            versionFilter = facetFilter(versionBitmaps, criteria.getCramerVersion());
+            moduleFilter = facetFilter(moduleBitmaps, criteria.getModule());
+            if (versionFilter != null && moduleFilter != null) {
+                facetFilter = (BitSet) versionFilter.clone();
+                facetFilter.and(moduleFilter);
+            } else {
+                facetFilter = versionFilter != null ? versionFilter : moduleFilter;
+            }
+
+            List<String[]> activeColumns = new ArrayList<>();
+            List<SearchTerm> activeTerms = new ArrayList<>();
+            int[] result = null;
+            for (SearchField field : TEXT_FIELDS) {
+                SearchTerm term = SearchTerm.of(field.termOf(criteria));
+                if (term.matchesAll()) {
+                    continue;
+                }
+                activeColumns.add(text[field.ordinal()]);
+                activeTerms.add(term);
+                int[] fieldRows = trigramCandidates(field, term);
+                if (fieldRows != null) {
+                    result = result == null ? fieldRows : TrigramIndex.intersect(result, fieldRows);
+                }
+            }
+            columns = activeColumns.toArray(new String[0][]);
+            terms = activeTerms.toArray(new SearchTerm[0]);
+            textCandidates = result;
+        }
+
+        private int[] trigramCandidates(SearchField field, SearchTerm term) {
+            TrigramIndex trigramIndex = trigrams[field.ordinal()];
+            String[] words = term.words();
+            if (trigramIndex == null || words == null) {
+                return null;
+            }
+            return trigramIndex.candidates(words);
+        }
+
+        /**
+         * Rows which can match, narrowed through the facet bitmaps and the trigram indexes,
+         * or null if nothing narrows the search and all rows have to be checked.
+         */
+        int[] candidates() {
+            if (facetFilter == null) {
+                return textCandidates;
+            }
+            if (textCandidates == null) {
+                return facetFilter.stream().toArray();
+            }
+            return Arrays.stream(textCandidates).filter(facetFilter::get).toArray();
+        }
+
+        /**
+         * Rows matching the free-text criteria, ignoring the facet filters.
+         */
+        BitSet textMatches() {
+            BitSet matches = new BitSet(rows.length);
+            int n = textCandidates == null ? rows.length : textCandidates.length;
+            for (int i = 0; i < n; i++) {
+                int r = textCandidates == null ? i : textCandidates[i];
+                if (matchesText(r)) {
+                    matches.set(r);
+                }
+            }
+            return matches;
+        }
+
+        /**
+         * Exact check of a single row against the free-text criteria.
+         */
+        boolean matchesText(int r) {
+            for (int f = 0; f < terms.length; f++) {
+                if (!terms[f].matches(columns[f][r])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+/**
+ * Thrown when a request parameter (sort field or order, cursor, result fields, paging or
+ * search term) cannot be used. The controllers report it to the client as a bad request.
+ *
+ * @author Avinash Tingre
+ */
+package com.avinash.HotfixService.Service;
+
+public class InvalidParameterException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidParameterException(String message) {
+        super(message);
+    }
+}
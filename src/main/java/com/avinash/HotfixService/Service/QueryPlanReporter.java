@@ -0,0 +1,103 @@
+/**
+ * Runs explain on the query shapes the service sends to MongoDB and reports the winning plan
+ * with documents scanned versus returned, to spot missing indexes and plan regressions.
+ *
+ * @author Avinash Tingre
+ */
+package com.avinash.HotfixService.Service;
+
+import com.avinash.HotfixService.Model.ECPLog;
+import com.avinash.HotfixService.Model.QueryPlan;
+import com.avinash.HotfixService.Model.SearchCriteria;
+import com.avinash.HotfixService.Model.UserDetails;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class QueryPlanReporter {
+
+    @Autowired
+    MongoTemplate mongoTemplate;
+
+    @Autowired
+    ECPLogService ecpService;
+
+    /***
+     * Explain the search, count, underlying hotfix, ecpNo lookup and user details queries,
+     * with the given values filled in.
+     */
+    public List<QueryPlan> explainQueryShapes(SearchCriteria criteria, int page_size, String latestEcp,
+                                              String ecpNo, String host) {
+        String hotfixes = mongoTemplate.getCollectionName(ECPLog.class);
+        Query search = Query.query(ecpService.matchCriteria(criteria));
+
+        List<QueryPlan> plans = new ArrayList<>();
+        plans.add(explain("search", hotfixes, search.getQueryObject(),
+                SortField.RELEASED_DATE.sort(Sort.Direction.DESC), page_size));
+        plans.add(explain("searchCount", hotfixes, search.getQueryObject(), Sort.unsorted(), 0));
+        plans.add(explain("underlyingHotfixes", hotfixes,
+                Query.query(Criteria.where("latestEcp").is(latestEcp)).getQueryObject(),
+                Sort.by(Sort.Direction.DESC, "sequence"), 0));
+        plans.add(explain("hotfixByEcpNo", hotfixes,
+                Query.query(Criteria.where("ecpNo").is(ecpNo)).getQueryObject(), Sort.unsorted(), 0));
+        plans.add(explain("userDetailsByHost", mongoTemplate.getCollectionName(UserDetails.class),
+                Query.query(Criteria.where("hostname").regex(".*" + host + ".*", "i")).getQueryObject(),
+                Sort.by(Sort.Direction.DESC, "date"), 0));
+        return plans;
+    }
+
+    private QueryPlan explain(String name, String collection, Document filter, Sort sort, int limit) {
+        Document sortObject = new Document();
+        sort.forEach(order -> sortObject.append(order.getProperty(), order.isAscending() ? 1 : -1));
+        Document find = new Document("find", collection).append("filter", filter).append("sort", sortObject);
+        if (limit > 0) {
+            find.append("limit", limit);
+        }
+        Document result = mongoTemplate.getDb()
+                .runCommand(new Document("explain", find).append("verbosity", "executionStats"));
+
+        Document winningPlan = result.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+        Document stats = result.get("executionStats", Document.class);
+        List<String> stages = new ArrayList<>();
+        collectStages(winningPlan, stages);
+
+        QueryPlan plan = new QueryPlan();
+        plan.setName(name);
+        plan.setCollection(collection);
+        plan.setFilter(filter.toJson());
+        plan.setSort(sortObject.toJson());
+        plan.setWinningPlan(String.join(" > ", stages));
+        plan.setCollectionScan(stages.stream().anyMatch(stage -> stage.startsWith("COLLSCAN")));
+        plan.setKeysExamined(stats.get("totalKeysExamined", Number.class).longValue());
+        plan.setDocsExamined(stats.get("totalDocsExamined", Number.class).longValue());
+        plan.setReturned(stats.get("nReturned", Number.class).longValue());
+        plan.setExecutionTimeMillis(stats.get("executionTimeMillis", Number.class).longValue());
+        return plan;
+    }
+
+    /**
+     * Stage names of the plan tree, depth first, with the index name of index scans.
+     */
+    private static void collectStages(Document stage, List<String> stages) {
+        String indexName = stage.getString("indexName");
+        stages.add(stage.getString("stage") + (indexName == null ? "" : "(" + indexName + ")"));
+        Document inputStage = stage.get("inputStage", Document.class);
+        if (inputStage != null) {
+            collectStages(inputStage, stages);
+        }
+        List<Document> inputStages = stage.getList("inputStages", Document.class);
+        if (inputStages != null) {
+            for (Document input : inputStages) {
+                collectStages(input, stages);
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Resolves the fields= parameter of a search into the hotfix attributes to return, and the
+ * Jackson filters which serialise only those attributes.
+ *
+ * @author Avinash Tingre
+ */
+package com.avinash.HotfixService.Service;
+
+import com.avinash.HotfixService.Model.ECPLog;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+public final class ResultFields {
+
+    public static final String FULL_VIEW = "full";
+    public static final String SUMMARY_VIEW = "summary";
+
+    //Columns of the search results grid.
+    private static final List<String> SUMMARY_FIELDS = Arrays.asList("_id", "ecpNo", "latestEcp", "cramerVersion",
+            "module", "description", "status", "requestor", "fixedBy", "caseOrCrNo", "releasedDate");
+
+    //Filters serialising every attribute, for responses without field selection.
+    public static final FilterProvider ALL_FIELDS = filters(null);
+
+    private static final Set<String> KNOWN_FIELDS = knownFields();
+
+    private ResultFields() {
+    }
+
+    private static Set<String> knownFields() {
+        Set<String> fields = new TreeSet<>();
+        for (Field field : ECPLog.class.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers()) && !field.isAnnotationPresent(JsonIgnore.class)) {
+                fields.add(field.getName());
+            }
+        }
+        return Collections.unmodifiableSet(fields);
+    }
+
+    /**
+     * Attributes selected by the fields parameter: "full" (or empty) for all attributes, which
+     * is returned as null, "summary" for the results grid columns, or a comma separated list of
+     * attribute names. _id and the sort field are always included so that cursors can be built.
+     *
+     * @throws InvalidParameterException for unknown attribute names
+     */
+    public static Set<String> parse(String fields, SortField sortField) {
+        if (fields == null || fields.trim().isEmpty() || fields.trim().equals(FULL_VIEW)) {
+            return null;
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add("_id");
+        if (fields.trim().equals(SUMMARY_VIEW)) {
+            selected.addAll(SUMMARY_FIELDS);
+        } else {
+            for (String field : fields.split(",")) {
+                String name = field.trim();
+                if (!KNOWN_FIELDS.contains(name)) {
+                    throw new InvalidParameterException("Unknown field: " + name + ". Use " + FULL_VIEW + ", "
+                            + SUMMARY_VIEW + " or names from " + KNOWN_FIELDS);
+                }
+                selected.add(name);
+            }
+        }
+        selected.add(sortField.getFieldName());
+        return selected;
+    }
+
+    /**
+     * Filters serialising only the given hotfix attributes, or all of them if fields is null.
+     */
+    public static FilterProvider filters(Set<String> fields) {
+        return new SimpleFilterProvider().addFilter(ECPLog.FIELD_FILTER, fields == null
+                ? SimpleBeanPropertyFilter.serializeAll()
+                : SimpleBeanPropertyFilter.filterOutAllExcept(fields));
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * Position in a sorted hotfix search, handed to the client as an opaque token. The next page
+ * starts right after the record with this sort value and _id, so deep pages cost the same as
+ * the first one. A full refresh reassigns _id from the row position in the sheet, so a cursor
+ * is only valid within the data generation it was issued in; ECPLogService rejects it after
+ * a refresh and the client has to restart paging.
+ *
+ * @author Avinash Tingre
+ */
+package com.avinash.HotfixService.Service;
+
+import com.avinash.HotfixService.Model.ECPLog;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+public final class SearchCursor {
+    private static final String SEPARATOR = "\n";
+    private static final String NULL_VALUE = "-";
+    private static final String DATE_VALUE = "d";
+    private static final String STRING_VALUE = "s";
+
+    private final SortField sortField;
+    private final boolean ascending;
+    private final long generation;
+    private final Comparable<?> value;
+    private final long id;
+
+    private SearchCursor(SortField sortField, boolean ascending, long generation, Comparable<?> value, long id) {
+        this.sortField = sortField;
+        this.ascending = ascending;
+        this.generation = generation;
+        this.value = value;
+        this.id = id;
+    }
+
+    /**
+     * Cursor pointing right after the given record of the given data generation.
+     */
+    public static SearchCursor after(ECPLog ecp, SortField sortField, boolean ascending, long generation) {
+        return new SearchCursor(sortField, ascending, generation, sortField.valueOf(ecp), ecp.get_id());
+    }
+
+    public SortField getSortField() {
+        return sortField;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    /**
+     * Number of the data generation the cursor was issued in, see DataGeneration.getNumber().
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Sort value of the last returned record, a Date or String, or null.
+     */
+    public Comparable<?> getValue() {
+        return value;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String encode() {
+        String encodedValue;
+        if (value == null) {
+            encodedValue = NULL_VALUE;
+        } else if (value instanceof Date) {
+            encodedValue = DATE_VALUE + ((Date) value).getTime();
+        } else {
+            encodedValue = STRING_VALUE + value;
+        }
+        String token = sortField.name() + SEPARATOR + (ascending ? "asc" : "desc") + SEPARATOR + generation + SEPARATOR
+                + id + SEPARATOR + encodedValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws InvalidParameterException if the token was not created by encode()
+     */
+    public static SearchCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)
+                    .split(SEPARATOR, 5);
+            SortField sortField = SortField.valueOf(parts[0]);
+            long generation = Long.parseLong(parts[2]);
+            long id = Long.parseLong(parts[3]);
+            Comparable<?> value;
+            if (parts[4].equals(NULL_VALUE)) {
+                value = null;
+            } else if (parts[4].startsWith(DATE_VALUE) && sortField.getType() == Date.class) {
+                value = new Date(Long.parseLong(parts[4].substring(DATE_VALUE.length())));
+            } else if (parts[4].startsWith(STRING_VALUE) && sortField.getType() == String.class) {
+                value = parts[4].substring(STRING_VALUE.length());
+            } else {
+                throw new IllegalArgumentException(parts[4]);
+            }
+            return new SearchCursor(sortField, parts[1].equals("asc"), generation, value, id);
+        } catch (RuntimeException ex) {
+            throw new InvalidParameterException("Invalid cursor: " + token);
+        }
+    }
+}
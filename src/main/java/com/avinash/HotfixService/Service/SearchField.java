@@ -0,0 +1,54 @@
+/**
+ * Free-text fields of a hotfix search, with their document field name and accessors.
+ *
+ * @author Avinash Tingre
+ */
+package com.avinash.HotfixService.Service;
+
+import com.avinash.HotfixService.Model.ECPLog;
+import com.avinash.HotfixService.Model.SearchCriteria;
+
+import java.util.function.Function;
+
+public enum SearchField {
+    ECP_NO("ecpNo", ECPLog::getEcpNo, SearchCriteria::getEcpNo, false),
+    DESCRIPTION("description", ECPLog::getDescription, SearchCriteria::getDescription, true),
+    LATEST_ECP("latestEcp", ECPLog::getLatestEcp, SearchCriteria::getLatestEcp, false),
+    REQUESTOR("requestor", ECPLog::getRequestor, SearchCriteria::getRequestor, false),
+    FIXED_BY("fixedBy", ECPLog::getFixedBy, SearchCriteria::getFixedBy, false),
+    CASE_OR_CR_NO("caseOrCrNo", ECPLog::getCaseOrCrNo, SearchCriteria::getCaseOrCrNo, false),
+    FILES_MODIFIED_IN_PERFORCE("filesModifiedInPerforce", ECPLog::getFilesModifiedInPerforce, SearchCriteria::getFilesModifiedInPerforce, true),
+    FILES_RELEASED_TO_CUSTOMER("filesReleasedToCustomer", ECPLog::getFilesReleasedToCustomer, SearchCriteria::getFilesReleasedToCustomer, true),
+    ROLLED_INTO_VERSION("rolledIntoVersion", ECPLog::getRolledIntoVersion, SearchCriteria::getRolledIntoVersion, false),
+    SPECIFIC_FUNC("specificFunc", ECPLog::getSpecificFunc, SearchCriteria::getSpecificFunc, false);
+
+    private final String fieldName;
+    private final Function<ECPLog, String> value;
+    private final Function<SearchCriteria, String> term;
+    //Long free-text fields which get a trigram index in the in-memory search.
+    private final boolean trigramIndexed;
+
+    SearchField(String fieldName, Function<ECPLog, String> value, Function<SearchCriteria, String> term,
+                boolean trigramIndexed) {
+        this.fieldName = fieldName;
+        this.value = value;
+        this.term = term;
+        this.trigramIndexed = trigramIndexed;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    public boolean isTrigramIndexed() {
+        return trigramIndexed;
+    }
+
+    public String valueOf(ECPLog ecp) {
+        return value.apply(ecp);
+    }
+
+    public String termOf(SearchCriteria criteria) {
+        return term.apply(criteria);
+    }
+}
@@ -0,0 +1,49 @@
+/**
+ * Checks the sort_order and paging parameters of a search before they reach Spring Data, so
+ * that invalid values are reported as bad requests instead of failing inside the query.
+ *
+ * @author Avinash Tingre
+ */
+package com.avinash.HotfixService.Service;
+
+import org.springframework.data.domain.Sort;
+
+public final class SearchParameters {
+
+    //page_no or page_size value requesting all matching records.
+    public static final int UNPAGED = -1;
+
+    private SearchParameters() {
+    }
+
+    /**
+     * Sort direction given by sort_order, "asc" or "desc" in any case.
+     *
+     * @throws InvalidParameterException if sort_order is neither
+     */
+    public static Sort.Direction sortOrder(String sort_order) {
+        return Sort.Direction.fromOptionalString(sort_order).orElseThrow(() -> new InvalidParameterException(
+                "Unsupported sort_order: " + sort_order + ". Supported values are asc and desc"));
+    }
+
+    /**
+     * Check page_no and page_size of a paged search; -1 for either of them returns all records.
+     *
+     * @throws InvalidParameterException if page_no is below 0 or page_size below 1, other than -1
+     */
+    public static void checkPage(int page_no, int page_size) {
+        if (page_no < UNPAGED) {
+            throw new InvalidParameterException("page_no must be 0 or more, or -1 for all results: " + page_no);
+        }
+        if (page_size < UNPAGED || page_size == 0) {
+            throw new InvalidParameterException("page_size must be 1 or more, or -1 for all results: " + page_size);
+        }
+    }
+
+    /**
+     * Whether checked page_no and page_size select a page rather than all records.
+     */
+    public static boolean isPaged(int page_no, int page_size) {
+        return page_no != UNPAGED && page_size != UNPAGED;
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Bounded LRU cache of search results. The data only changes on refresh, so entries stay valid
+ * for the data generation they were loaded from. The first request of a newer generation drops
+ * all entries; requests still running on an older generation bypass the cache.
+ * The cache is bounded by weight, the number of hotfix records held by all cached results.
+ *
+ * @author Avinash Tingre
+ */
+package com.avinash.HotfixService.Service;
+
+import com.avinash.HotfixService.Model.CacheStatistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+@Component
+public class SearchResultCache {
+
+    @Value("${app.search.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.search.cache.maxRecords:100000}")
+    private long maxWeight;
+
+    //Access ordered, so iteration starts at the least recently used entry.
+    private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    //Number of the data generation all entries belong to.
+    private long generation;
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    private static final class Entry {
+        private final Object value;
+        private final int weight;
+
+        private Entry(Object value, int weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * Cached result for the key in the given data generation, or the loader's result, which must
+     * be read from that generation and is cached unless a newer one was seen while it was
+     * loading. Cached values are shared between callers and must not be modified.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(DataGeneration data, Object key, Supplier<T> loader, ToIntFunction<T> weigher) {
+        if (!enabled) {
+            return loader.get();
+        }
+        long loadGeneration = data.getNumber();
+        synchronized (this) {
+            if (loadGeneration > generation) {
+                generation = loadGeneration;
+                entries.clear();
+                weight = 0;
+            }
+            Entry entry = loadGeneration == generation ? entries.get(key) : null;
+            if (entry != null) {
+                hits++;
+                return (T) entry.value;
+            }
+            misses++;
+        }
+
+        T value = loader.get();
+        int valueWeight = Math.max(1, weigher.applyAsInt(value));
+        synchronized (this) {
+            if (loadGeneration == generation && valueWeight <= maxWeight) {
+                Entry previous = entries.put(key, new Entry(value, valueWeight));
+                weight += valueWeight - (previous == null ? 0 : previous.weight);
+                evictToMaxWeight();
+            }
+        }
+        return value;
+    }
+
+    private void evictToMaxWeight() {
+        Iterator<Map.Entry<Object, Entry>> it = entries.entrySet().iterator();
+        while (weight > maxWeight && it.hasNext()) {
+            weight -= it.next().getValue().weight;
+            it.remove();
+            evictions++;
+        }
+    }
+
+    public synchronized CacheStatistics getStatistics() {
+        CacheStatistics stats = new CacheStatistics();
+        stats.setEnabled(enabled);
+        stats.setGeneration(generation);
+        stats.setHits(hits);
+        stats.setMisses(misses);
+        stats.setEvictions(evictions);
+        stats.setEntries(entries.size());
+        stats.setWeight(weight);
+        stats.setMaxWeight(maxWeight);
+        return stats;
+    }
+}
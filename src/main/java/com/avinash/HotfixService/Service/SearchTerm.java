@@ -0,0 +1,145 @@
+/**
+ * A search term compiled once for both search paths: regex() is the case-insensitive
+ * $regex sent to MongoDB and matches() evaluates the same condition in memory. The words of
+ * the term must appear in order on one line of the value; an empty term matches everything.
+ * Terms using regex syntax are matched as regex.
+ * Compiled terms are shared through a small LRU cache, so repeated searches neither
+ * rebuild the regex nor recompile the Pattern.
+ *
+ * @author Avinash Tingre
+ */
+package com.avinash.HotfixService.Service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+final class SearchTerm {
+
+    private static final Pattern REGEX_SYNTAX = Pattern.compile("[\\\\.\\[\\]{}()*+?^$|]");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final SearchTerm ANY = new SearchTerm(new String[0], null, null);
+    private static final int CACHE_SIZE = 256;
+
+    private static final Map<String, SearchTerm> CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<String, SearchTerm>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, SearchTerm> eldest) {
+                    return size() > CACHE_SIZE;
+                }
+            });
+
+    //Lowercase words of the term, or null if the term is matched as regex.
+    private final String[] words;
+    private final Pattern pattern;
+    private final String regex;
+
+    private SearchTerm(String[] words, Pattern pattern, String regex) {
+        this.words = words;
+        this.pattern = pattern;
+        this.regex = regex;
+    }
+
+    /**
+     * The compiled form of a term, taken from the cache when the same term was searched
+     * recently.
+     */
+    static SearchTerm of(String term) {
+        String trimmed = term.trim();
+        if (trimmed.isEmpty()) {
+            return ANY;
+        }
+        SearchTerm compiled = CACHE.get(trimmed);
+        if (compiled == null) {
+            compiled = compile(trimmed);
+            CACHE.put(trimmed, compiled);
+        }
+        return compiled;
+    }
+
+    private static SearchTerm compile(String trimmed) {
+        if (REGEX_SYNTAX.matcher(trimmed).find()) {
+            String regex = ".*" + trimmed.replaceAll("\\s", ".*") + ".*";
+            try {
+                return new SearchTerm(null, Pattern.compile(regex, Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE), regex);
+            } catch (PatternSyntaxException ex) {
+                throw new InvalidParameterException("Invalid search term: " + trimmed);
+            }
+        }
+        //A literal needs no leading or trailing ".*": an unanchored regex finds it anywhere.
+        String[] words = WHITESPACE.split(trimmed);
+        String regex = String.join(".*", words);
+        for (int i = 0; i < words.length; i++) {
+            words[i] = words[i].toLowerCase(Locale.ROOT);
+        }
+        return new SearchTerm(words, null, regex);
+    }
+
+    /**
+     * Lowercase words which must all be contained in a matching value, or null if the term
+     * is matched as regex.
+     */
+    String[] words() {
+        return words;
+    }
+
+    /**
+     * True if the term is empty and places no restriction, so it needs no predicate.
+     */
+    boolean matchesAll() {
+        return this == ANY;
+    }
+
+    /**
+     * Regex for a case-insensitive MongoDB match, or null if the term matches everything.
+     */
+    String regex() {
+        return regex;
+    }
+
+    /**
+     * Match against a value, given in lowercase. Null values never match.
+     */
+    boolean matches(String lowerValue) {
+        if (lowerValue == null) {
+            return false;
+        }
+        if (pattern != null) {
+            return pattern.matcher(lowerValue).find();
+        }
+        if (words.length <= 1) {
+            return words.length == 0 || lowerValue.contains(words[0]);
+        }
+
+        //".*" in the regex does not match line breaks, so all words must be on one line.
+        int lineStart = 0;
+        while (true) {
+            int lineEnd = lowerValue.indexOf('\n', lineStart);
+            if (lineEnd < 0) {
+                lineEnd = lowerValue.length();
+            }
+            if (matchesLine(lowerValue, lineStart, lineEnd)) {
+                return true;
+            }
+            if (lineEnd == lowerValue.length()) {
+                return false;
+            }
+            lineStart = lineEnd + 1;
+        }
+    }
+
+    private boolean matchesLine(String value, int from, int to) {
+        int pos = from;
+        for (String word : words) {
+            int index = value.indexOf(word, pos);
+            if (index < 0 || index + word.length() > to) {
+                return false;
+            }
+            pos = index + word.length();
+        }
+        return true;
+    }
+}
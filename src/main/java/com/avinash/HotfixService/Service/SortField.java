@@ -0,0 +1,96 @@
+/**
+ * Fields a hotfix search can be sorted on. Ties are always broken on _id, in the same
+ * direction, so that every ordering is total and pages never overlap.
+ *
+ * @author Avinash Tingre
+ */
+package com.avinash.HotfixService.Service;
+
+import com.avinash.HotfixService.Model.ECPLog;
+import org.springframework.data.domain.Sort;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.function.Function;
+
+public enum SortField {
+    RELEASED_DATE("releasedDate", Date.class, ECPLog::getReleasedDate),
+    REQUEST_DATE("requestDate", Date.class, ECPLog::getRequestDate),
+    TARGET_DATE("targetDate", Date.class, ECPLog::getTargetDate),
+    ECP_NO("ecpNo", String.class, ECPLog::getEcpNo),
+    CRAMER_VERSION("cramerVersion", String.class, ECPLog::getCramerVersion),
+    MODULE("module", String.class, ECPLog::getModule),
+    REQUESTOR("requestor", String.class, ECPLog::getRequestor),
+    FIXED_BY("fixedBy", String.class, ECPLog::getFixedBy);
+
+    //Null values sort first, like MongoDB sorts missing fields.
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final Comparator<Comparable> VALUE_ORDER = Comparator.nullsFirst(Comparator.naturalOrder());
+
+    private final String fieldName;
+    private final Class<? extends Comparable<?>> type;
+    private final Function<ECPLog, ? extends Comparable<?>> key;
+    private final Comparator<ECPLog> comparator;
+
+    <T extends Comparable<? super T>> SortField(String fieldName, Class<T> type, Function<ECPLog, T> key) {
+        this.fieldName = fieldName;
+        this.type = type;
+        this.key = key;
+        this.comparator = Comparator.comparing(key, Comparator.nullsFirst(Comparator.<T>naturalOrder()))
+                .thenComparingLong(ECPLog::get_id);
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    /**
+     * Value type of the field, Date or String.
+     */
+    public Class<? extends Comparable<?>> getType() {
+        return type;
+    }
+
+    public Comparable<?> valueOf(ECPLog ecp) {
+        return key.apply(ecp);
+    }
+
+    /**
+     * Compare the field of the record, then its _id, with the given value and _id.
+     */
+    @SuppressWarnings("rawtypes")
+    public int compare(ECPLog ecp, Comparable value, long id) {
+        int result = VALUE_ORDER.compare(key.apply(ecp), value);
+        return result != 0 ? result : Long.compare(ecp.get_id(), id);
+    }
+
+    /**
+     * Ascending order of records on this field, then _id.
+     */
+    public Comparator<ECPLog> comparator() {
+        return comparator;
+    }
+
+    /**
+     * MongoDB sort on this field, then _id, both in the given direction.
+     */
+    public Sort sort(Sort.Direction direction) {
+        return Sort.by(direction, fieldName, "_id");
+    }
+
+    /**
+     * Sort field with the given document field name.
+     *
+     * @throws InvalidParameterException if sorting on the field is not supported
+     */
+    public static SortField of(String fieldName) {
+        for (SortField field : values()) {
+            if (field.fieldName.equals(fieldName)) {
+                return field;
+            }
+        }
+        throw new InvalidParameterException("Unsupported sort_by: " + fieldName + ". Supported fields are "
+                + Arrays.stream(values()).map(SortField::getFieldName).reduce((a, b) -> a + ", " + b).orElse(""));
+    }
+}
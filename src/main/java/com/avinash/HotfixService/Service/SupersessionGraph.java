@@ -0,0 +1,355 @@
+/**
+ * Supersession relationships between hotfixes, built from all records after every refresh
+ * so the underlying chain of a latest ECP, the hotfixes superseding an ECP and the
+ * prerequisites of an ECP are looked up in memory instead of queried from MongoDB.
+ * ECP numbers are matched trimmed and ignoring case, on building and on lookup, and
+ * returned as spelled in the ecpNo of their record.
+ *
+ * @author Avinash Tingre
+ */
+package com.avinash.HotfixService.Service;
+
+import com.avinash.HotfixService.Model.ECPLog;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+final class SupersessionGraph {
+
+    //Separator of several ECP numbers in one cell. ECP numbers themselves contain spaces.
+    private static final Pattern ECP_LIST_SEPARATOR = Pattern.compile("[,;\\n]+");
+    //Value stored for blank cells.
+    private static final String EMPTY_VALUE = "-";
+    private static final Set<String> YES_VALUES = new HashSet<>(Arrays.asList("YES", "Y", "TRUE"));
+
+    private static final Comparator<ECPLog> BY_SEQUENCE_DESC = Comparator
+            .comparing(SupersessionGraph::sequenceOf, Comparator.nullsLast(Comparator.<Integer>reverseOrder()))
+            .thenComparing(ECPLog::getEcpNo, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    //Spelling returned for every ECP number, by key().
+    private final Map<String, String> names;
+    //Underlying hotfixes of every latestEcp, by key(), as returned by /getUnderlyingHFs.
+    private final Map<String, Map<Integer, String>> chains;
+    //Keys of the hotfixes directly superseding an ECP: its latestEcp and those listing it in ecpReplaced.
+    private final Map<String, List<String>> supersededBy;
+    //Keys of the hotfixes taking part in prerequisite links, numbered in install order.
+    private final String[] installOrder;
+    //All direct and indirect prerequisites of an ECP, as positions in installOrder.
+    private final Map<String, BitSet> prerequisiteClosure;
+
+    SupersessionGraph(Collection<ECPLog> ecpLogs) {
+        Map<String, String> nameMap = new HashMap<>(ecpLogs.size() * 2);
+        for (ECPLog ecp : ecpLogs) {
+            if (isEcpNo(ecp.getEcpNo())) {
+                nameMap.putIfAbsent(key(ecp.getEcpNo()), ecp.getEcpNo().trim());
+            }
+        }
+
+        Map<String, List<ECPLog>> members = new HashMap<>();
+        Map<String, Set<String>> successors = new HashMap<>();
+        Map<String, Set<String>> prerequisites = new HashMap<>();
+        for (ECPLog ecp : ecpLogs) {
+            members.computeIfAbsent(key(ecp.getLatestEcp()), k -> new ArrayList<>()).add(ecp);
+
+            if (isEcpNo(ecp.getEcpNo())) {
+                String ecpNo = key(ecp.getEcpNo());
+                if (isEcpNo(ecp.getLatestEcp())) {
+                    String latestEcp = key(ecp.getLatestEcp());
+                    nameMap.putIfAbsent(latestEcp, ecp.getLatestEcp().trim());
+                    if (!latestEcp.equals(ecpNo)) {
+                        successors.computeIfAbsent(ecpNo, k -> new LinkedHashSet<>()).add(latestEcp);
+                    }
+                }
+                for (String replaced : ecpList(ecp.getEcpReplaced())) {
+                    nameMap.putIfAbsent(key(replaced), replaced);
+                    if (!key(replaced).equals(ecpNo)) {
+                        successors.computeIfAbsent(key(replaced), k -> new LinkedHashSet<>()).add(ecpNo);
+                    }
+                }
+                for (String dependent : prerequisiteFor(ecp)) {
+                    nameMap.putIfAbsent(key(dependent), dependent);
+                    if (!key(dependent).equals(ecpNo)) {
+                        prerequisites.computeIfAbsent(key(dependent), k -> new HashSet<>()).add(ecpNo);
+                    }
+                }
+            }
+        }
+
+        Map<String, Map<Integer, String>> chainMap = new HashMap<>(members.size() * 2);
+        for (Map.Entry<String, List<ECPLog>> entry : members.entrySet()) {
+            chainMap.put(entry.getKey(), underlying(entry.getValue()));
+        }
+        Map<String, List<String>> successorMap = new HashMap<>(successors.size() * 2);
+        for (Map.Entry<String, Set<String>> entry : successors.entrySet()) {
+            successorMap.put(entry.getKey(), Collections.unmodifiableList(new ArrayList<>(entry.getValue())));
+        }
+        names = nameMap;
+        chains = chainMap;
+        supersededBy = successorMap;
+
+        List<SortedSet<String>> groups = installGroups(prerequisites);
+        List<String> order = new ArrayList<>();
+        for (SortedSet<String> group : groups) {
+            order.addAll(group);
+        }
+        installOrder = order.toArray(new String[0]);
+        Map<String, Integer> position = new HashMap<>(installOrder.length * 2);
+        for (int i = 0; i < installOrder.length; i++) {
+            position.put(installOrder[i], i);
+        }
+
+        //Groups come after all groups they depend on, so the closures of prerequisites outside
+        //a group are complete when it is reached. Hotfixes on a cycle share one closure.
+        Map<String, BitSet> closureMap = new HashMap<>(prerequisites.size() * 2);
+        for (SortedSet<String> group : groups) {
+            BitSet closure = new BitSet();
+            for (String member : group) {
+                for (String prerequisite : prerequisites.getOrDefault(member, Collections.emptySet())) {
+                    closure.set(position.get(prerequisite));
+                    if (!group.contains(prerequisite) && closureMap.containsKey(prerequisite)) {
+                        closure.or(closureMap.get(prerequisite));
+                    }
+                }
+            }
+            for (String member : group) {
+                if (prerequisites.containsKey(member)) {
+                    BitSet own = (BitSet) closure.clone();
+                    own.clear(position.get(member));
+                    closureMap.put(member, own);
+                }
+            }
+        }
+        prerequisiteClosure = closureMap;
+    }
+
+    /**
+     * All hotfixes in prerequisite links in install order, as groups of hotfixes on a common
+     * prerequisite cycle (single hotfixes if there is none). Every group follows the groups of
+     * its prerequisites; otherwise groups are ordered by their first ecp number.
+     */
+    private static List<SortedSet<String>> installGroups(Map<String, Set<String>> prerequisites) {
+        Map<String, Integer> groupOf = cycleGroups(prerequisites);
+        List<SortedSet<String>> groups = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : groupOf.entrySet()) {
+            while (groups.size() <= entry.getValue()) {
+                groups.add(new TreeSet<>());
+            }
+            groups.get(entry.getValue()).add(entry.getKey());
+        }
+
+        int[] pending = new int[groups.size()];
+        List<Set<Integer>> dependents = new ArrayList<>(groups.size());
+        for (int i = 0; i < groups.size(); i++) {
+            dependents.add(new HashSet<>());
+        }
+        for (Map.Entry<String, Set<String>> entry : prerequisites.entrySet()) {
+            int dependent = groupOf.get(entry.getKey());
+            for (String prerequisite : entry.getValue()) {
+                int group = groupOf.get(prerequisite);
+                if (group != dependent && dependents.get(group).add(dependent)) {
+                    pending[dependent]++;
+                }
+            }
+        }
+
+        PriorityQueue<Integer> ready = new PriorityQueue<>(Comparator.comparing(g -> groups.get(g).first()));
+        for (int i = 0; i < groups.size(); i++) {
+            if (pending[i] == 0) {
+                ready.add(i);
+            }
+        }
+        List<SortedSet<String>> order = new ArrayList<>(groups.size());
+        while (!ready.isEmpty()) {
+            int next = ready.poll();
+            order.add(groups.get(next));
+            for (int dependent : dependents.get(next)) {
+                if (--pending[dependent] == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Numbers the strongly connected components of the prerequisite links (Tarjan), so that
+     * hotfixes depending on each other get the same number. Iterative, as chains can be long.
+     */
+    private static Map<String, Integer> cycleGroups(Map<String, Set<String>> prerequisites) {
+        Set<String> nodes = new TreeSet<>(prerequisites.keySet());
+        for (Set<String> values : prerequisites.values()) {
+            nodes.addAll(values);
+        }
+        Map<String, Integer> index = new HashMap<>(nodes.size() * 2);
+        Map<String, Integer> lowLink = new HashMap<>(nodes.size() * 2);
+        Map<String, Integer> groupOf = new HashMap<>(nodes.size() * 2);
+        Deque<String> stack = new ArrayDeque<>();
+        Deque<String> path = new ArrayDeque<>();
+        Deque<Iterator<String>> edges = new ArrayDeque<>();
+        int groups = 0;
+
+        for (String root : nodes) {
+            if (index.containsKey(root)) {
+                continue;
+            }
+            String next = root;
+            while (next != null || !path.isEmpty()) {
+                if (next != null) {
+                    index.put(next, index.size());
+                    lowLink.put(next, index.get(next));
+                    stack.push(next);
+                    path.push(next);
+                    edges.push(prerequisites.getOrDefault(next, Collections.emptySet()).iterator());
+                    next = null;
+                    continue;
+                }
+                String node = path.peek();
+                Iterator<String> it = edges.peek();
+                if (it.hasNext()) {
+                    String prerequisite = it.next();
+                    if (!index.containsKey(prerequisite)) {
+                        next = prerequisite;
+                    } else if (!groupOf.containsKey(prerequisite)) {
+                        lowLink.put(node, Math.min(lowLink.get(node), index.get(prerequisite)));
+                    }
+                    continue;
+                }
+                path.pop();
+                edges.pop();
+                if (lowLink.get(node).equals(index.get(node))) {
+                    String member;
+                    do {
+                        member = stack.pop();
+                        groupOf.put(member, groups);
+                    } while (!member.equals(node));
+                    groups++;
+                }
+                if (!path.isEmpty()) {
+                    lowLink.put(path.peek(), Math.min(lowLink.get(path.peek()), lowLink.get(node)));
+                }
+            }
+        }
+        return groupOf;
+    }
+
+    /**
+     * Ecp numbers of all hotfixes with the given latestEcp, keyed by sequence with the
+     * highest first. Records whose sequence is not a number, or repeats the sequence of
+     * another record, are kept under the keys -1, -2, ... so that no record is lost.
+     */
+    static Map<Integer, String> underlying(List<ECPLog> chain) {
+        List<ECPLog> sorted = new ArrayList<>(chain);
+        sorted.sort(BY_SEQUENCE_DESC);
+
+        Map<Integer, String> result_map = new TreeMap<Integer, String>(Collections.reverseOrder());
+        int unnumbered = 0;
+        for (ECPLog e : sorted) {
+            Integer sequence = sequenceOf(e);
+            if (sequence == null || sequence < 0 || result_map.containsKey(sequence)) {
+                sequence = --unnumbered;
+            }
+            result_map.put(sequence, e.getEcpNo());
+        }
+        return Collections.unmodifiableMap(result_map);
+    }
+
+    /**
+     * Underlying hotfixes of a latest ECP, see {@link #underlying(List)}.
+     */
+    Map<Integer, String> underlying(String latestEcp) {
+        return chains.getOrDefault(key(latestEcp), Collections.emptyMap());
+    }
+
+    /**
+     * All hotfixes superseding an ECP, directly or through later hotfixes, nearest first.
+     */
+    List<String> supersedingHotfixes(String ecpNo) {
+        String start = key(ecpNo);
+        Set<String> found = new LinkedHashSet<>();
+        Deque<String> pending = new ArrayDeque<>();
+        pending.add(start);
+        while (!pending.isEmpty()) {
+            for (String next : supersededBy.getOrDefault(pending.poll(), Collections.emptyList())) {
+                if (!next.equals(start) && found.add(next)) {
+                    pending.add(next);
+                }
+            }
+        }
+        List<String> result = new ArrayList<>(found.size());
+        for (String next : found) {
+            result.add(names.get(next));
+        }
+        return result;
+    }
+
+    /**
+     * All hotfixes which have to be installed before an ECP, directly or through other
+     * prerequisites, in install order.
+     */
+    List<String> prerequisites(String ecpNo) {
+        BitSet closure = prerequisiteClosure.get(key(ecpNo));
+        if (closure == null) {
+            return Collections.emptyList();
+        }
+        List<String> result = new ArrayList<>(closure.cardinality());
+        for (int i = closure.nextSetBit(0); i >= 0; i = closure.nextSetBit(i + 1)) {
+            result.add(names.get(installOrder[i]));
+        }
+        return result;
+    }
+
+    int size() {
+        return chains.size();
+    }
+
+    private static Integer sequenceOf(ECPLog ecp) {
+        try {
+            return Integer.valueOf(ecp.getSequence().trim());
+        } catch (RuntimeException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Hotfixes a record is a prerequisite for: those listed in prereqForLatestEcp, or else
+     * its latestEcp. Only records flagged isPreRequisite are prerequisites.
+     */
+    private static List<String> prerequisiteFor(ECPLog ecp) {
+        String flag = ecp.getIsPreRequisite();
+        if (flag == null || !YES_VALUES.contains(flag.trim().toUpperCase(Locale.ROOT))) {
+            return Collections.emptyList();
+        }
+        List<String> dependents = ecpList(ecp.getPrereqForLatestEcp());
+        if (dependents.isEmpty() && isEcpNo(ecp.getLatestEcp())) {
+            return Collections.singletonList(ecp.getLatestEcp().trim());
+        }
+        return dependents;
+    }
+
+    /**
+     * The ECP number as matched: trimmed and upper case. Null stays null.
+     */
+    static String key(String ecpNo) {
+        return ecpNo == null ? null : ecpNo.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static boolean isEcpNo(String value) {
+        return value != null && !value.trim().isEmpty() && !value.trim().equals(EMPTY_VALUE);
+    }
+
+    /**
+     * The ECP numbers listed in a cell, separated by commas, semicolons or line breaks.
+     */
+    static List<String> ecpList(String value) {
+        if (!isEcpNo(value)) {
+            return Collections.emptyList();
+        }
+        List<String> ecps = new ArrayList<>();
+        for (String ecp : ECP_LIST_SEPARATOR.split(value)) {
+            if (isEcpNo(ecp)) {
+                ecps.add(ecp.trim());
+            }
+        }
+        return ecps;
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * Inverted index from the three-character substrings of a text column to the rows containing
+ * them. Used to narrow a substring search down to candidate rows before matching.
+ *
+ * @author Avinash Tingre
+ */
+package com.avinash.HotfixService.Service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+final class TrigramIndex {
+
+    private static final int[] NO_ROWS = new int[0];
+
+    //Sorted row numbers per trigram.
+    private final Map<Long, int[]> postings;
+
+    /**
+     * Index a column of lowercase values, indexed by row.
+     */
+    TrigramIndex(String[] column) {
+        Map<Long, IntList> lists = new HashMap<>();
+        for (int r = 0; r < column.length; r++) {
+            String value = column[r];
+            if (value == null) {
+                continue;
+            }
+            for (int i = 0; i + 3 <= value.length(); i++) {
+                IntList rows = lists.computeIfAbsent(trigram(value, i), key -> new IntList());
+                if (rows.size == 0 || rows.values[rows.size - 1] != r) {
+                    rows.add(r);
+                }
+            }
+        }
+
+        postings = new HashMap<>(lists.size() * 4 / 3 + 1);
+        for (Map.Entry<Long, IntList> entry : lists.entrySet()) {
+            postings.put(entry.getKey(), entry.getValue().toArray());
+        }
+    }
+
+    /**
+     * Rows which may contain all of the given lowercase words, in ascending order, or null if
+     * none of the words is long enough to narrow the search.
+     */
+    int[] candidates(String[] words) {
+        int[] result = null;
+        for (String word : words) {
+            for (int i = 0; i + 3 <= word.length(); i++) {
+                int[] rows = postings.get(trigram(word, i));
+                if (rows == null) {
+                    return NO_ROWS;
+                }
+                result = result == null ? rows : intersect(result, rows);
+                if (result.length == 0) {
+                    return NO_ROWS;
+                }
+            }
+        }
+        return result;
+    }
+
+    static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+
+    private static long trigram(String s, int i) {
+        return ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+    }
+
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
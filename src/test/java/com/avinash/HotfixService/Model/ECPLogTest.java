@@ -0,0 +1,54 @@
+package com.avinash.HotfixService.Model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ECPLogTest {
+
+	private static ECPLog ecp(long id, Date releasedDate) {
+		ECPLog ecp = new ECPLog();
+		ecp.set_id(id);
+		ecp.setReleasedDate(releasedDate);
+		return ecp;
+	}
+
+	@Test
+	void sortsNewestReleaseFirst() {
+		ECPLog older = ecp(1, new Date(1000));
+		ECPLog newer = ecp(2, new Date(2000));
+		List<ECPLog> list = new ArrayList<>(Arrays.asList(older, newer));
+
+		Collections.sort(list);
+
+		assertEquals(Arrays.asList(newer, older), list);
+	}
+
+	@Test
+	void breaksTiesOnHigherIdFirst() {
+		ECPLog first = ecp(1, new Date(1000));
+		ECPLog second = ecp(2, new Date(1000));
+
+		assertTrue(second.compareTo(first) < 0);
+		assertTrue(first.compareTo(second) > 0);
+		assertEquals(0, first.compareTo(ecp(1, new Date(1000))));
+	}
+
+	@Test
+	void sortsMissingReleaseDateLast() {
+		ECPLog undated = ecp(3, null);
+		ECPLog dated = ecp(1, new Date(1000));
+		List<ECPLog> list = new ArrayList<>(Arrays.asList(undated, dated));
+
+		Collections.sort(list);
+
+		assertEquals(Arrays.asList(dated, undated), list);
+	}
+}
@@ -0,0 +1,61 @@
+package com.avinash.HotfixService.Service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ECPRowConverterTest {
+
+	private static final LocalDate MISSING_DATE = LocalDate.of(1899, 12, 31);
+
+	private static LocalDate day(Date date) {
+		return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+	}
+
+	@Test
+	void convertsSerialsOfThe1900DateSystem() {
+		assertEquals(LocalDate.of(1900, 1, 1), day(ECPRowConverter.fromExcelSerial(1, false)));
+		assertEquals(LocalDate.of(1900, 2, 28), day(ECPRowConverter.fromExcelSerial(59, false)));
+		assertEquals(LocalDate.of(1900, 3, 1), day(ECPRowConverter.fromExcelSerial(61, false)));
+		assertEquals(LocalDate.of(2010, 3, 9), day(ECPRowConverter.fromExcelSerial(40246, false)));
+	}
+
+	@Test
+	void convertsSerialsOfThe1904DateSystem() {
+		assertEquals(LocalDate.of(1904, 1, 1), day(ECPRowConverter.fromExcelSerial(0, true)));
+		assertEquals(LocalDate.of(2010, 3, 9), day(ECPRowConverter.fromExcelSerial(40246 - 1462, true)));
+	}
+
+	@Test
+	void dropsTheTimeOfDay() {
+		assertEquals(LocalDate.of(2010, 3, 9), day(ECPRowConverter.fromExcelSerial(40246.75, false)));
+	}
+
+	@Test
+	void mapsNegativeSerialsToMissingDate() {
+		assertEquals(MISSING_DATE, day(ECPRowConverter.fromExcelSerial(-1, false)));
+	}
+
+	@Test
+	void parsesTextDates() {
+		assertEquals(LocalDate.of(2010, 3, 9), day(ECPRowConverter.parseDate("09-Mar-2010")));
+		assertEquals(LocalDate.of(2010, 3, 9), day(ECPRowConverter.parseDate(" 9-mar-2010 ")));
+	}
+
+	@Test
+	void keepsTheLenientFormsAcceptedBefore() {
+		assertEquals(LocalDate.of(2010, 3, 9), day(ECPRowConverter.parseDate("09-March-2010")));
+		assertEquals(LocalDate.of(2010, 3, 9), day(ECPRowConverter.parseDate("09-Mar-2010 approx")));
+	}
+
+	@Test
+	void mapsEmptyAndInvalidTextToMissingDate() {
+		assertEquals(MISSING_DATE, day(ECPRowConverter.parseDate(null)));
+		assertEquals(MISSING_DATE, day(ECPRowConverter.parseDate("-")));
+		assertEquals(MISSING_DATE, day(ECPRowConverter.parseDate("n/a")));
+	}
+}
@@ -0,0 +1,69 @@
+package com.avinash.HotfixService.Service;
+
+import com.avinash.HotfixService.Model.ECPLog;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IncrementalMergeTest {
+
+	private static ECPLog ecp(long id, String ecpNo, String contentHash) {
+		ECPLog ecp = new ECPLog();
+		ecp.set_id(id);
+		ecp.setEcpNo(ecpNo);
+		ecp.setContentHash(contentHash);
+		return ecp;
+	}
+
+	private static List<Long> ids(List<ECPLog> ecpLogs) {
+		List<Long> ids = new ArrayList<>();
+		for (ECPLog ecp : ecpLogs) {
+			ids.add(ecp.get_id());
+		}
+		return ids;
+	}
+
+	@Test
+	void matchesRowsOnEcpNoAndOccurrence() {
+		Map<String, List<ECPLog>> existing = new HashMap<>();
+		existing.put("ECP 1", new ArrayList<>(Arrays.asList(ecp(1, "ECP 1", "h1"), ecp(2, "ECP 1", "h2"))));
+		existing.put("ECP 2", new ArrayList<>(Collections.singletonList(ecp(3, "ECP 2", "h3"))));
+		existing.put("-", new ArrayList<>(Collections.singletonList(ecp(4, "-", "blank"))));
+		existing.put("ECP 9", new ArrayList<>(Collections.singletonList(ecp(5, "ECP 9", "h9"))));
+		List<ECPLog> written = new ArrayList<>();
+		ECPFileHandler.IncrementalMerge merge = new ECPFileHandler.IncrementalMerge(existing, 5, written::add);
+
+		merge.accept(ecp(0, "ECP 1", "h1"));
+		merge.accept(ecp(0, "ECP 1", "h2 changed"));
+		merge.accept(ecp(0, "ECP 1", "h1"));
+		merge.accept(ecp(0, "ECP 2", "h3"));
+		merge.accept(ecp(0, "-", "blank"));
+		merge.accept(ecp(0, "-", "another blank"));
+
+		assertEquals(2, merge.inserted);
+		assertEquals(1, merge.changed);
+		assertEquals(3, merge.unchanged);
+		assertEquals(Arrays.asList(2L, 6L, 7L), ids(written));
+		assertEquals(Collections.singletonList(5L), merge.removedIds());
+	}
+
+	@Test
+	void removesRowsDeletedFromTheEndOfADuplicateGroup() {
+		Map<String, List<ECPLog>> existing = new HashMap<>();
+		existing.put("ECP 1", new ArrayList<>(Arrays.asList(ecp(1, "ECP 1", "h1"), ecp(2, "ECP 1", "h2"))));
+		List<ECPLog> written = new ArrayList<>();
+		ECPFileHandler.IncrementalMerge merge = new ECPFileHandler.IncrementalMerge(existing, 2, written::add);
+
+		merge.accept(ecp(0, "ECP 1", "h1"));
+
+		assertEquals(Collections.emptyList(), written);
+		assertEquals(Collections.singletonList(2L), merge.removedIds());
+	}
+}
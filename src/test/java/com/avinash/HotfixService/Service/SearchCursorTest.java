@@ -0,0 +1,92 @@
+package com.avinash.HotfixService.Service;
+
+import com.avinash.HotfixService.Model.ECPLog;
+import com.avinash.HotfixService.Model.SearchCriteria;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SearchCursorTest {
+
+	private static final SearchCriteria ALL = new SearchCriteria("", "", Collections.emptyList(), "", "", "",
+			Collections.emptyList(), "", "", "", "", "");
+
+	private static ECPLog ecp(long id, String ecpNo, Date releasedDate) {
+		ECPLog ecp = new ECPLog();
+		ecp.set_id(id);
+		ecp.setEcpNo(ecpNo);
+		ecp.setReleasedDate(releasedDate);
+		return ecp;
+	}
+
+	private static SearchCursor roundTrip(SearchCursor cursor) {
+		return SearchCursor.decode(cursor.encode());
+	}
+
+	@Test
+	void encodesDateValues() {
+		SearchCursor cursor = roundTrip(SearchCursor.after(ecp(7, "ECP 7", new Date(123456789L)),
+				SortField.RELEASED_DATE, false, 3));
+
+		assertEquals(SortField.RELEASED_DATE, cursor.getSortField());
+		assertEquals(false, cursor.isAscending());
+		assertEquals(3, cursor.getGeneration());
+		assertEquals(new Date(123456789L), cursor.getValue());
+		assertEquals(7, cursor.getId());
+	}
+
+	@Test
+	void encodesStringAndNullValues() {
+		SearchCursor text = roundTrip(SearchCursor.after(ecp(1, "ECP\n1 ä", null), SortField.ECP_NO, true, 1));
+		SearchCursor missing = roundTrip(SearchCursor.after(ecp(2, "ECP 2", null), SortField.RELEASED_DATE, true, 1));
+
+		assertEquals("ECP\n1 ä", text.getValue());
+		assertNull(missing.getValue());
+	}
+
+	@Test
+	void rejectsForeignTokens() {
+		assertThrows(InvalidParameterException.class, () -> SearchCursor.decode("not a cursor"));
+		assertThrows(InvalidParameterException.class, () -> SearchCursor.decode(""));
+	}
+
+	/**
+	 * Paging with cursors through ties and missing values returns every record once, in the
+	 * order of the unpaged search.
+	 */
+	@Test
+	void continuesRightAfterTheCursor() {
+		Random random = new Random(5);
+		List<ECPLog> ecpLogs = new ArrayList<>();
+		for (int id = 1; id <= 40; id++) {
+			Date released = random.nextInt(5) == 0 ? null : new Date(random.nextInt(6) * 86400000L);
+			ecpLogs.add(ecp(id, random.nextInt(5) == 0 ? null : "ECP " + random.nextInt(8), released));
+		}
+		ECPSearchIndex index = new ECPSearchIndex(ecpLogs);
+
+		for (SortField sortField : new SortField[]{SortField.RELEASED_DATE, SortField.ECP_NO}) {
+			for (boolean ascending : new boolean[]{true, false}) {
+				List<ECPLog> expected = index.search(ALL, sortField, ascending, 0, Integer.MAX_VALUE);
+				List<ECPLog> paged = new ArrayList<>();
+				SearchCursor after = null;
+				while (true) {
+					List<ECPLog> page = index.searchAfter(ALL, sortField, ascending, after, 3);
+					paged.addAll(page);
+					if (page.size() < 3) {
+						break;
+					}
+					after = roundTrip(SearchCursor.after(page.get(page.size() - 1), sortField, ascending, 1));
+				}
+				assertEquals(expected, paged, sortField + (ascending ? " asc" : " desc"));
+			}
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package com.avinash.HotfixService.Service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchParametersTest {
+
+	@Test
+	void acceptsSortOrdersInAnyCase() {
+		assertEquals(Sort.Direction.ASC, SearchParameters.sortOrder("asc"));
+		assertEquals(Sort.Direction.DESC, SearchParameters.sortOrder("DESC"));
+	}
+
+	@Test
+	void rejectsUnknownSortOrder() {
+		assertThrows(InvalidParameterException.class, () -> SearchParameters.sortOrder("newest"));
+		assertThrows(InvalidParameterException.class, () -> SearchParameters.sortOrder(""));
+	}
+
+	@Test
+	void acceptsPagesAndUnpagedSearches() {
+		assertDoesNotThrow(() -> SearchParameters.checkPage(0, 1));
+		assertDoesNotThrow(() -> SearchParameters.checkPage(-1, -1));
+		assertDoesNotThrow(() -> SearchParameters.checkPage(-1, 20));
+		assertDoesNotThrow(() -> SearchParameters.checkPage(3, -1));
+
+		assertTrue(SearchParameters.isPaged(0, 1));
+		assertFalse(SearchParameters.isPaged(-1, 20));
+		assertFalse(SearchParameters.isPaged(3, -1));
+	}
+
+	@Test
+	void rejectsNegativePageNo() {
+		assertThrows(InvalidParameterException.class, () -> SearchParameters.checkPage(-2, 20));
+	}
+
+	@Test
+	void rejectsEmptyOrNegativePageSize() {
+		assertThrows(InvalidParameterException.class, () -> SearchParameters.checkPage(0, 0));
+		assertThrows(InvalidParameterException.class, () -> SearchParameters.checkPage(-1, 0));
+		assertThrows(InvalidParameterException.class, () -> SearchParameters.checkPage(0, -5));
+	}
+
+	/**
+	 * The service checks the page before anything else, so it needs no data to reject it.
+	 */
+	@Test
+	void searchesRejectInvalidPagesBeforeQuerying() {
+		ECPLogService service = new ECPLogService();
+
+		assertThrows(InvalidParameterException.class, () -> service.searchData(null, "ECP", "",
+				Collections.emptyList(), "", "", "", Collections.emptyList(), "", "", "", "", "", 0, 0,
+				SortField.RELEASED_DATE, Sort.Direction.DESC, null));
+		assertThrows(InvalidParameterException.class, () -> service.searchWithTotal(null, "ECP", "",
+				Collections.emptyList(), "", "", "", Collections.emptyList(), "", "", "", "", "", -3, 10,
+				SortField.RELEASED_DATE, Sort.Direction.DESC, null, false));
+	}
+}
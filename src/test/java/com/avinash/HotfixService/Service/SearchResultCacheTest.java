@@ -0,0 +1,83 @@
+package com.avinash.HotfixService.Service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SearchResultCacheTest {
+
+	private SearchResultCache cache;
+	private final AtomicInteger loads = new AtomicInteger();
+
+	private static DataGeneration generation(long number) {
+		return new DataGeneration(number, null, Collections.emptyList(), Collections.emptyList(), 0, null, null,
+				null, null, null);
+	}
+
+	@BeforeEach
+	void setUp() {
+		cache = new SearchResultCache();
+		ReflectionTestUtils.setField(cache, "enabled", true);
+		ReflectionTestUtils.setField(cache, "maxWeight", 3L);
+	}
+
+	private String get(DataGeneration generation, String key, int weight) {
+		return cache.get(generation, key, () -> key + loads.incrementAndGet(), value -> weight);
+	}
+
+	@Test
+	void servesRepeatedSearchesFromTheCache() {
+		DataGeneration first = generation(1);
+
+		assertEquals("a1", get(first, "a", 1));
+		assertEquals("a1", get(first, "a", 1));
+		assertEquals(1, cache.getStatistics().getHits());
+		assertEquals(1, cache.getStatistics().getMisses());
+	}
+
+	@Test
+	void evictsLeastRecentlyUsedBeyondMaxWeight() {
+		DataGeneration first = generation(1);
+		get(first, "a", 1);
+		get(first, "b", 1);
+		get(first, "a", 1);
+		get(first, "c", 2);
+
+		assertEquals(1, cache.getStatistics().getEvictions());
+		assertEquals(3, cache.getStatistics().getWeight());
+		assertEquals("a1", get(first, "a", 1));
+		assertEquals("b4", get(first, "b", 1));
+	}
+
+	@Test
+	void doesNotCacheResultsHeavierThanMaxWeight() {
+		DataGeneration first = generation(1);
+
+		assertEquals("a1", get(first, "a", 4));
+		assertEquals("a2", get(first, "a", 4));
+		assertEquals(0, cache.getStatistics().getEntries());
+	}
+
+	@Test
+	void dropsEntriesOfOlderGenerations() {
+		get(generation(1), "a", 1);
+
+		assertEquals("a2", get(generation(2), "a", 1));
+		assertEquals(2, cache.getStatistics().getGeneration());
+		assertEquals(1, cache.getStatistics().getEntries());
+	}
+
+	@Test
+	void bypassesTheCacheForRequestsOnAnOlderGeneration() {
+		get(generation(2), "a", 1);
+
+		assertEquals("a2", get(generation(1), "a", 1));
+		assertEquals("a1", get(generation(2), "a", 1));
+		assertEquals(2, cache.getStatistics().getGeneration());
+	}
+}
@@ -0,0 +1,68 @@
+package com.avinash.HotfixService.Service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchTermTest {
+
+	private static final List<String> TERMS = Arrays.asList("console", " search  console ", "Console Issue",
+			"issue search", "ecp 12", "con.ole", "^search", "a|b", "(issue)");
+
+	private static final List<String> VALUES = Arrays.asList("Search Console issue", "search\nconsole issue",
+			"console", "CONSOLE ISSUE", "ECP 12", "ecp12", "a", "issue search", "Search console\nissue", "");
+
+	/**
+	 * The in-memory match and the regex sent to MongoDB must select the same values.
+	 */
+	@Test
+	void literalAndRegexMatchTheSameValues() {
+		for (String text : TERMS) {
+			SearchTerm term = SearchTerm.of(text);
+			Pattern regex = Pattern.compile(term.regex(), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+			for (String value : VALUES) {
+				assertEquals(regex.matcher(value).find(), term.matches(value.toLowerCase(Locale.ROOT)),
+						"term \"" + text + "\" on \"" + value + "\"");
+			}
+		}
+	}
+
+	@Test
+	void literalWordsMustBeInOrderOnOneLine() {
+		SearchTerm term = SearchTerm.of("search console");
+
+		assertTrue(term.matches("the search console"));
+		assertFalse(term.matches("console search"));
+		assertFalse(term.matches("search\nconsole"));
+	}
+
+	@Test
+	void emptyTermsPlaceNoRestriction() {
+		for (String text : Arrays.asList("", "   ")) {
+			SearchTerm term = SearchTerm.of(text);
+			assertTrue(term.matchesAll());
+			assertNull(term.regex());
+			assertEquals(0, term.words().length);
+		}
+	}
+
+	@Test
+	void reusesCompiledTerms() {
+		assertSame(SearchTerm.of("search console"), SearchTerm.of(" search console "));
+	}
+
+	@Test
+	void rejectsInvalidRegex() {
+		assertThrows(InvalidParameterException.class, () -> SearchTerm.of("issue("));
+	}
+}
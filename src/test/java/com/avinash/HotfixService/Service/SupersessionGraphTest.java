@@ -0,0 +1,116 @@
+package com.avinash.HotfixService.Service;
+
+import com.avinash.HotfixService.Model.ECPLog;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SupersessionGraphTest {
+
+	private static ECPLog ecp(String ecpNo, String latestEcp, String sequence) {
+		ECPLog ecp = new ECPLog();
+		ecp.setEcpNo(ecpNo);
+		ecp.setLatestEcp(latestEcp);
+		ecp.setSequence(sequence);
+		ecp.setEcpReplaced("-");
+		ecp.setIsPreRequisite("No");
+		ecp.setPrereqForLatestEcp("-");
+		return ecp;
+	}
+
+	private static ECPLog replacing(String ecpNo, String ecpReplaced) {
+		ECPLog ecp = ecp(ecpNo, ecpNo, "1");
+		ecp.setEcpReplaced(ecpReplaced);
+		return ecp;
+	}
+
+	private static ECPLog prerequisiteFor(String ecpNo, String dependents) {
+		ECPLog ecp = ecp(ecpNo, "-", "1");
+		ecp.setIsPreRequisite("Yes");
+		ecp.setPrereqForLatestEcp(dependents);
+		return ecp;
+	}
+
+	@Test
+	void ordersUnderlyingHotfixesBySequence() {
+		List<ECPLog> chain = Arrays.asList(ecp("ECP B", "ECP 10", "1"), ecp("ECP D", "ECP 10", "n/a"),
+				ecp("ECP A", "ECP 10", "3"), ecp("ECP C", "ECP 10", "1"));
+
+		Map<Integer, String> underlying = SupersessionGraph.underlying(chain);
+
+		assertEquals(Arrays.asList(3, 1, -1, -2), new ArrayList<>(underlying.keySet()));
+		assertEquals(Arrays.asList("ECP A", "ECP B", "ECP C", "ECP D"), new ArrayList<>(underlying.values()));
+	}
+
+	@Test
+	void looksUpChainsTrimmedAndIgnoringCase() {
+		SupersessionGraph graph = new SupersessionGraph(Arrays.asList(ecp("ECP 1", "ECP 10 ", "1"),
+				ecp("ECP 10", "ecp 10", "2")));
+
+		assertEquals(Arrays.asList("ECP 10", "ECP 1"), new ArrayList<>(graph.underlying(" Ecp 10").values()));
+	}
+
+	@Test
+	void findsSupersedingHotfixesNearestFirst() {
+		SupersessionGraph graph = new SupersessionGraph(Arrays.asList(
+				ecp("ECP 1", "ECP 3", "1"),
+				replacing("ECP 2", " ecp 1"),
+				ecp("ECP 3", "ECP 3", "2"),
+				replacing("ECP 4", "ECP 3; ECP 2")));
+
+		assertEquals(Arrays.asList("ECP 3", "ECP 2", "ECP 4"), graph.supersedingHotfixes("ECP 1"));
+		assertEquals(Arrays.asList("ECP 3", "ECP 2", "ECP 4"), graph.supersedingHotfixes(" ecp 1 "));
+		assertEquals(Collections.singletonList("ECP 4"), graph.supersedingHotfixes("ECP 3"));
+		assertEquals(Collections.emptyList(), graph.supersedingHotfixes("ECP 4"));
+	}
+
+	@Test
+	void ignoresSelfReferences() {
+		SupersessionGraph graph = new SupersessionGraph(Collections.singletonList(replacing("ECP 1", "ecp 1")));
+
+		assertEquals(Collections.emptyList(), graph.supersedingHotfixes("ECP 1"));
+	}
+
+	/**
+	 * ECP X and ECP Y are prerequisites of each other; ECP C depends on the cycle and sorts
+	 * before it by name, but must still be installed after it.
+	 */
+	@Test
+	void listsPrerequisitesInInstallOrderAroundACycle() {
+		SupersessionGraph graph = new SupersessionGraph(Arrays.asList(
+				prerequisiteFor("ECP P", "ECP X"),
+				prerequisiteFor("ECP X", "ECP Y"),
+				prerequisiteFor("ECP Y", "ecp x, ECP C"),
+				prerequisiteFor("ECP C", "ECP D"),
+				ecp("ECP D", "ECP D", "1")));
+
+		assertEquals(Arrays.asList("ECP P", "ECP X", "ECP Y", "ECP C"), graph.prerequisites("ECP D"));
+		assertEquals(Arrays.asList("ECP P", "ECP X", "ECP Y", "ECP C"), graph.prerequisites(" ecp d"));
+		assertEquals(Arrays.asList("ECP P", "ECP X", "ECP Y"), graph.prerequisites("ECP C"));
+		assertEquals(Arrays.asList("ECP P", "ECP Y"), graph.prerequisites("ECP X"));
+		assertEquals(Arrays.asList("ECP P", "ECP X"), graph.prerequisites("ECP Y"));
+		assertEquals(Collections.emptyList(), graph.prerequisites("ECP P"));
+	}
+
+	@Test
+	void usesLatestEcpWhenNoDependentIsListed() {
+		ECPLog prerequisite = ecp("ECP 1", "ECP 5", "1");
+		prerequisite.setIsPreRequisite("Y");
+		SupersessionGraph graph = new SupersessionGraph(Arrays.asList(prerequisite, ecp("ECP 5", "ECP 5", "2")));
+
+		assertEquals(Collections.singletonList("ECP 1"), graph.prerequisites("ECP 5"));
+	}
+
+	@Test
+	void splitsEcpLists() {
+		assertEquals(Arrays.asList("ECP 1", "ECP 2", "ECP 3"), SupersessionGraph.ecpList("ECP 1, ECP 2;\nECP 3,"));
+		assertEquals(Collections.emptyList(), SupersessionGraph.ecpList(" - "));
+		assertEquals(Collections.emptyList(), SupersessionGraph.ecpList(null));
+	}
+}
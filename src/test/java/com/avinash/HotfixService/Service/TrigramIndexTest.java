@@ -0,0 +1,73 @@
+package com.avinash.HotfixService.Service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrigramIndexTest {
+
+	private static final String ALPHABET = "abcd ";
+
+	private static String randomText(Random random, int maxLength) {
+		StringBuilder sb = new StringBuilder();
+		int length = random.nextInt(maxLength + 1);
+		for (int i = 0; i < length; i++) {
+			sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+		}
+		return sb.toString();
+	}
+
+	@Test
+	void candidatesContainEveryRowHoldingAllWords() {
+		Random random = new Random(42);
+		for (int round = 0; round < 200; round++) {
+			String[] column = new String[50];
+			for (int r = 0; r < column.length; r++) {
+				column[r] = random.nextInt(10) == 0 ? null : randomText(random, 30);
+			}
+			TrigramIndex index = new TrigramIndex(column);
+			String[] words = new String[1 + random.nextInt(2)];
+			for (int w = 0; w < words.length; w++) {
+				words[w] = randomText(random, 5).trim();
+			}
+
+			int[] candidates = index.candidates(words);
+			boolean narrows = Arrays.stream(words).anyMatch(word -> word.length() >= 3);
+			if (!narrows) {
+				assertNull(candidates);
+				continue;
+			}
+			for (int i = 1; i < candidates.length; i++) {
+				assertTrue(candidates[i - 1] < candidates[i], "candidates must be ascending");
+			}
+			for (int r = 0; r < column.length; r++) {
+				String value = column[r];
+				boolean matches = value != null && Arrays.stream(words).allMatch(value::contains);
+				if (matches) {
+					assertTrue(Arrays.binarySearch(candidates, r) >= 0,
+							"row " + r + " \"" + value + "\" missing for " + Arrays.toString(words));
+				}
+			}
+		}
+	}
+
+	@Test
+	void returnsNoRowsForUnknownTrigram() {
+		TrigramIndex index = new TrigramIndex(new String[]{"search console", "issue"});
+
+		assertEquals(0, index.candidates(new String[]{"xyz"}).length);
+		assertArrayEquals(new int[]{0}, index.candidates(new String[]{"console"}));
+	}
+
+	@Test
+	void intersectsSortedRows() {
+		assertArrayEquals(new int[]{2, 5}, TrigramIndex.intersect(new int[]{1, 2, 5, 7}, new int[]{2, 3, 5}));
+		assertArrayEquals(new int[0], TrigramIndex.intersect(new int[]{1}, new int[]{2}));
+	}
+}